@@ -14,61 +14,43 @@ import glueSemantics.synInterface.dependency.LexVariableHandler;
 import glueSemantics.linearLogic.*;
 import glueSemantics.synInterface.dependency.LexicalParserException;
 
-import java.util.HashMap;
-
 public class Determiner extends LexicalEntry{
     public LexicalEntry.LexType lexType;
 
 
-    private static HashMap<String,String> scope;
-
-    private static void  setScope(String role)
-    {
-        String var = LexVariableHandler.returnNewVar(LexVariableHandler.variableType.LLatomE);
-        if (scope == null)
-        {
-        scope = new HashMap<>();
-
-        }
-        scope.put(role,var);
-
-    }
-
-    public Determiner(SubcatFrame subcatFrame, String detType, String role) throws LexicalParserException {
+    public Determiner(SubcatFrame subcatFrame, String detType, String role, LexVariableHandler vars) throws LexicalParserException {
         this.lexType = LexType.DET;
         this.identifier = subcatFrame.getScopeVar(role);
 
-        String var = LexVariableHandler.returnNewVar(LexVariableHandler.variableType.LLvar);
+        String var = vars.returnNewVar(LexVariableHandler.variableType.LLvar);
 
         //Restrictor
 
-        LLAtom subjsem = new LLAtom(subcatFrame.getRole(role).identifier, LLTerm.Type.E, LLAtom.LLType.CONST,true);
+        LLAtom subjsem = LLTermFactory.atom(subcatFrame.getRole(role).identifier, LLTerm.Type.E, LLAtom.LLType.CONST);
 
-        LLAtom restr = new LLAtom(subcatFrame.getRole(role).identifier, LLTerm.Type.T, LLAtom.LLType.CONST,false);
+        LLAtom restr = LLTermFactory.atom(subcatFrame.getRole(role).identifier, LLTerm.Type.T, LLAtom.LLType.CONST);
         //LexVariableHandler.addUsedVariable(LexVariableHandler.variableType.LLatomT,identifier);
 
-        LLFormula restrSem = new LLFormula(subjsem,restr,false);
+        LLFormula restrSem = LLTermFactory.formula(subjsem, restr);
 
         //Scope
-        LLAtom scopeConst = new LLAtom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST,false);
+        LLAtom scopeConst = LLTermFactory.atom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST);
 
         //Identifier for the semantics of the whole things
-        String detVar = LexVariableHandler.returnNewVar(LexVariableHandler.variableType.LLvar);
+        String detVar = vars.returnNewVar(LexVariableHandler.variableType.LLvar);
 
         // for the resource that is consumed
-        LLAtom scopeSem = new LLAtom(detVar,
-                LLTerm.Type.T, LLAtom.LLType.VAR,false);
+        LLAtom scopeSem = LLTermFactory.atom(detVar, LLTerm.Type.T, LLAtom.LLType.VAR);
 
-        LLFormula scope = new LLFormula(scopeConst,scopeSem,false);
+        LLFormula scope = LLTermFactory.formula(scopeConst, scopeSem);
 
         // for the resulting resource
-        LLAtom detRes = new LLAtom(detVar,
-                LLTerm.Type.T, LLAtom.LLType.VAR,true);
+        LLAtom detRes = LLTermFactory.atom(detVar, LLTerm.Type.T, LLAtom.LLType.VAR);
 
 
-        LLFormula scopeComplete = new LLFormula(scope,detRes,true,detRes);
+        LLFormula scopeComplete = LLTermFactory.formula(scope, detRes, detRes);
 
-        LLFormula detSem = new LLFormula(restrSem,scopeComplete,true);
+        LLFormula detSem = LLTermFactory.formula(restrSem, scopeComplete);
 
         this.setLlTerm(detSem);
 
@@ -76,20 +58,20 @@ public class Determiner extends LexicalEntry{
         /*Linear Logic*/
 
         //binding variable of the quantifier
-        LLAtom binder = new LLAtom(var, LLTerm.Type.T, LLAtom.LLType.VAR);
+        LLAtom binder = LLTermFactory.atom(var, LLTerm.Type.T, LLAtom.LLType.VAR);
 
         //Parts of the antecedent
-        LLAtom argsem = new LLAtom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST,true);
-        LLAtom left = new LLAtom(var, LLTerm.Type.T, LLAtom.LLType.VAR,false);
+        LLAtom argsem = LLTermFactory.atom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST);
+        LLAtom left = LLTermFactory.atom(var, LLTerm.Type.T, LLAtom.LLType.VAR);
 
         //consequent of the det
-        LLAtom right = new LLAtom(var, LLTerm.Type.T, LLAtom.LLType.VAR,true);
+        LLAtom right = LLTermFactory.atom(var, LLTerm.Type.T, LLAtom.LLType.VAR);
 
         //antecedent
-        LLFormula ant = new LLFormula(argsem,left,false);
+        LLFormula ant = LLTermFactory.formula(argsem, left);
 
         //wrapping in consequent
-        LLFormula det = new LLFormula(ant,right,true, binder);
+        LLFormula det = LLTermFactory.formula(ant, right, binder);
 
         // this.llTerm = det;
 
@@ -98,12 +80,12 @@ public class Determiner extends LexicalEntry{
 
         // p = restr
         SemAtom p = new SemAtom(SemAtom.SemSort.VAR,
-                LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarComp),
+                vars.returnNewVar(LexVariableHandler.variableType.SemVarComp),
                 new SemType(SemType.AtomicType.E, SemType.AtomicType.T));
 
         // q = scope
         SemAtom q = new SemAtom(SemAtom.SemSort.VAR,
-                LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarComp),
+                vars.returnNewVar(LexVariableHandler.variableType.SemVarComp),
                 new SemType(SemType.AtomicType.E, SemType.AtomicType.T));
 
         if (detType.toLowerCase().equals("a"))
@@ -111,7 +93,7 @@ public class Determiner extends LexicalEntry{
 
             //binder variable
             SemAtom semBinder = new SemAtom(SemAtom.SemSort.VAR,
-                    LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                    vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                     SemType.AtomicType.E);
 
             FuncApp restrFA = new FuncApp(p,semBinder);
@@ -128,7 +110,7 @@ public class Determiner extends LexicalEntry{
 
             //binder variable
             SemAtom semBinder = new SemAtom(SemAtom.SemSort.VAR,
-                    LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                    vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                     SemType.AtomicType.E);
 
 
@@ -146,20 +128,4 @@ public class Determiner extends LexicalEntry{
 
     }
 
-
-    public static HashMap getterScope()
-    {
-    return Determiner.scope;
-    }
-    // Setter and Getter
-    public static String getScope(String role)
-    {
-        if (scope == null)
-            return null;
-        return scope.get(role);
-    }
-
-
-
 }
-
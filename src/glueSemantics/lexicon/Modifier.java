@@ -14,12 +14,13 @@ import glueSemantics.synInterface.dependency.LexVariableHandler;
 import glueSemantics.linearLogic.LLAtom;
 import glueSemantics.linearLogic.LLFormula;
 import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.LLTermFactory;
 
 public class Modifier extends LexicalEntry {
     public LexType lexType;
 
 
-    public Modifier(String identifier,String lemma)
+    public Modifier(String identifier,String lemma, LexVariableHandler vars)
     {
         this.lexType = LexType.MOD;
         //identifier is provided by dependency in SentenceMeaning
@@ -27,20 +28,20 @@ public class Modifier extends LexicalEntry {
         /*Linear Logic*/
 
         //generating consumer
-        LLAtom var = new LLAtom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST,false);
+        LLAtom var = LLTermFactory.atom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST);
 
         //generate semantics
-        LLAtom rest = new LLAtom(identifier, LLTerm.Type.T, LLAtom.LLType.CONST,true);
-        this.setLlTerm(new LLFormula(new LLFormula(var,rest,false ),new LLFormula(var,rest,true ),true));
+        LLAtom rest = LLTermFactory.atom(identifier, LLTerm.Type.T, LLAtom.LLType.CONST);
+        this.setLlTerm(LLTermFactory.formula(LLTermFactory.formula(var, rest), LLTermFactory.formula(var, rest)));
 
         /*Semantics*/
         SemAtom modVar = new SemAtom(SemAtom.SemSort.VAR,
                 //binding variable
-                LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                 SemType.AtomicType.E);
 
         SemAtom p = new SemAtom(SemAtom.SemSort.VAR,
-                LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarComp),
+                vars.returnNewVar(LexVariableHandler.variableType.SemVarComp),
                 new SemType(SemType.AtomicType.E, SemType.AtomicType.T));
 
         SemPred modSem1 = new SemPred(lemma,modVar);
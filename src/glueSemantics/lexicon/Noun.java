@@ -13,6 +13,7 @@ import glueSemantics.synInterface.dependency.LexVariableHandler;
 import glueSemantics.linearLogic.LLAtom;
 import glueSemantics.linearLogic.LLFormula;
 import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.LLTermFactory;
 import glueSemantics.semantics.lambda.SemAtom;
 import glueSemantics.semantics.lambda.SemFunction;
 import glueSemantics.semantics.lambda.SemPred;
@@ -25,7 +26,7 @@ public class Noun extends LexicalEntry {
     public LexType lexType;
 
 
-    public Noun(LexType type, String identifier, String main) throws LexicalParserException {
+    public Noun(LexType type, String identifier, String main, LexVariableHandler vars) throws LexicalParserException {
 
         this.identifier = identifier;
 
@@ -38,7 +39,7 @@ public class Noun extends LexicalEntry {
         switch (this.lexType) {
             case N_NNP:
 
-                this.setLlTerm(new LLAtom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST, true));
+                this.setLlTerm(LLTermFactory.atom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST));
 
                 this.setSem(new SemAtom(SemAtom.SemSort.CONST, main.substring(0, 1).toLowerCase(),
                         SemType.AtomicType.E));
@@ -49,19 +50,18 @@ public class Noun extends LexicalEntry {
                 /*Linear Logic*/
 
                 //generating consumer
-                LLAtom agentRes = new LLAtom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST, false);
+                LLAtom agentRes = LLTermFactory.atom(identifier, LLTerm.Type.E, LLAtom.LLType.CONST);
 
                 //generate semantics
-                LLAtom fsem = new LLAtom(identifier,
-                        LLTerm.Type.T, LLAtom.LLType.CONST, true);
+                LLAtom fsem = LLTermFactory.atom(identifier, LLTerm.Type.T, LLAtom.LLType.CONST);
 
-                this.setLlTerm(new LLFormula(agentRes, fsem, true));
+                this.setLlTerm(LLTermFactory.formula(agentRes, fsem));
 
                 /*Semantics*/
 
                 SemAtom agentVar = new SemAtom(SemAtom.SemSort.VAR,
                         //binding variable
-                        LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                        vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                         SemType.AtomicType.E
                 );
 
@@ -17,6 +17,7 @@ import glueSemantics.synInterface.dependency.LexVariableHandler;
 import glueSemantics.linearLogic.LLAtom;
 import glueSemantics.linearLogic.LLFormula;
 import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.LLTermFactory;
 import glueSemantics.synInterface.dependency.LexicalParserException;
 
 import java.util.*;
@@ -26,7 +27,7 @@ public class Verb extends LexicalEntry {
     LexType lexType;
     private SubcatFrame subcatFrame;
 
-    public Verb(SubcatFrame subcatFrame, String lemma) throws LexicalParserException {
+    public Verb(SubcatFrame subcatFrame, String lemma, LexVariableHandler vars) throws LexicalParserException {
         this.lexType = subcatFrame.getLextype();
 
         //f is standard variable for complete f-structure
@@ -39,17 +40,17 @@ public class Verb extends LexicalEntry {
                 LexicalEntry agent = subcatFrame.getRole("agent");
 
                 /*Linear Logic*/
-                LLAtom agentRes = new LLAtom(subcatFrame.getScopeVar("agent"), LLTerm.Type.E, LLAtom.LLType.CONST, false);
+                LLAtom agentRes = LLTermFactory.atom(subcatFrame.getScopeVar("agent"), LLTerm.Type.E, LLAtom.LLType.CONST);
 
-                LLAtom fsem = new LLAtom(LexVariableHandler.returnNewVar(LexVariableHandler.variableType.LLatomT),
-                        LLTerm.Type.T, LLAtom.LLType.CONST,true);
+                LLAtom fsem = LLTermFactory.atom(vars.returnNewVar(LexVariableHandler.variableType.LLatomT),
+                        LLTerm.Type.T, LLAtom.LLType.CONST);
 
-                this.setLlTerm(new LLFormula(agentRes,fsem,true ));
+                this.setLlTerm(LLTermFactory.formula(agentRes, fsem));
 
                 /*Semantics*/
                 SemAtom agentVar = new SemAtom(SemAtom.SemSort.VAR,
                         //binding variable
-                        LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                        vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                         SemType.AtomicType.E
                 );
 
@@ -69,28 +70,28 @@ public class Verb extends LexicalEntry {
                 /*Linear Logic*/
 
                 //generating consumer
-                LLAtom agentRes = new LLAtom(subcatFrame.getScopeVar("agent"), LLTerm.Type.E, LLAtom.LLType.CONST, false);
-                LLAtom patientRes = new LLAtom(subcatFrame.getScopeVar("patient"), LLTerm.Type.E, LLAtom.LLType.CONST, false);
+                LLAtom agentRes = LLTermFactory.atom(subcatFrame.getScopeVar("agent"), LLTerm.Type.E, LLAtom.LLType.CONST);
+                LLAtom patientRes = LLTermFactory.atom(subcatFrame.getScopeVar("patient"), LLTerm.Type.E, LLAtom.LLType.CONST);
 
                 //generate semantics
-                LLAtom fsem = new LLAtom(LexVariableHandler.returnNewVar(LexVariableHandler.variableType.LLatomT),
-                        LLTerm.Type.T, LLAtom.LLType.CONST, true);
+                LLAtom fsem = LLTermFactory.atom(vars.returnNewVar(LexVariableHandler.variableType.LLatomT),
+                        LLTerm.Type.T, LLAtom.LLType.CONST);
 
-                LLFormula firstArg = new LLFormula(patientRes, fsem, true);
+                LLFormula firstArg = LLTermFactory.formula(patientRes, fsem);
 
-                this.setLlTerm(new LLFormula(agentRes, firstArg, true));
+                this.setLlTerm(LLTermFactory.formula(agentRes, firstArg));
 
 
                 /*Semantics*/
                 SemAtom agentVar = new SemAtom(SemAtom.SemSort.VAR,
                         //binding variable
-                        LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                        vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                         SemType.AtomicType.E
                 );
 
                 SemAtom patientVar = new SemAtom(SemAtom.SemSort.VAR,
                         //binding variable
-                        LexVariableHandler.returnNewVar(LexVariableHandler.variableType.SemVarE),
+                        vars.returnNewVar(LexVariableHandler.variableType.SemVarE),
                         SemType.AtomicType.E
                 );
 
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package glueSemantics.linearLogic;
+
+import java.util.*;
+
+/**
+ * An immutable set of premise IDs encoded as a bitset. Sets of up to 64 premises are stored in a
+ * single long word, larger sets in an array of words. Disjointness, union and equality checks
+ * are done as word operations, so combining two premises does not need any boxed integers or
+ * hash sets. For compatibility the class is also a (read-only) Set of Integers.
+ */
+public final class IDSet extends AbstractSet<Integer> {
+    public static final IDSet EMPTY = new IDSet(0L, null);
+
+    // IDs 0-63; only used if words is null
+    private final long word;
+    // all IDs if the set contains IDs >= 64, null otherwise
+    private final long[] words;
+    private final int hash;
+
+    private IDSet(long word, long[] words) {
+        this.word = word;
+        this.words = words;
+        int h = 0;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i+1))
+            h += i;
+        this.hash = h;
+    }
+
+    public static IDSet of(int id) {
+        if (id < 0)
+            throw new IllegalArgumentException("Premise IDs must not be negative: " + id);
+        if (id < 64)
+            return new IDSet(1L << id, null);
+        long[] w = new long[(id >> 6) + 1];
+        w[id >> 6] = 1L << id;
+        return new IDSet(0L, w);
+    }
+
+    public static IDSet of(Collection<Integer> ids) {
+        IDSet result = EMPTY;
+        for (Integer id : ids)
+            result = result.union(IDSet.of(id));
+        return result;
+    }
+
+    private int wordCount() {
+        return words == null ? 1 : words.length;
+    }
+
+    private long getWord(int i) {
+        if (words == null)
+            return i == 0 ? word : 0L;
+        return i < words.length ? words[i] : 0L;
+    }
+
+    /**
+     * @return true if this set and other have no IDs in common
+     */
+    public boolean disjoint(IDSet other) {
+        if (words == null && other.words == null)
+            return (word & other.word) == 0L;
+        int n = Math.min(wordCount(), other.wordCount());
+        for (int i = 0; i < n; i++) {
+            if ((getWord(i) & other.getWord(i)) != 0L)
+                return false;
+        }
+        return true;
+    }
+
+    public IDSet union(IDSet other) {
+        if (words == null && other.words == null)
+            return new IDSet(word | other.word, null);
+        int n = Math.max(wordCount(), other.wordCount());
+        long[] w = new long[n];
+        for (int i = 0; i < n; i++)
+            w[i] = getWord(i) | other.getWord(i);
+        return new IDSet(0L, w);
+    }
+
+    /**
+     * @return the IDs of this set that are not contained in other
+     */
+    public IDSet minus(IDSet other) {
+        if (words == null)
+            return new IDSet(word & ~other.getWord(0), null);
+        long[] w = new long[words.length];
+        for (int i = 0; i < w.length; i++)
+            w[i] = words[i] & ~other.getWord(i);
+        return new IDSet(0L, w);
+    }
+
+    /**
+     * @return true if all IDs of other are contained in this set
+     */
+    public boolean containsAll(IDSet other) {
+        int n = other.wordCount();
+        for (int i = 0; i < n; i++) {
+            long o = other.getWord(i);
+            if ((getWord(i) & o) != o)
+                return false;
+        }
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && (getWord(id >> 6) & (1L << id)) != 0L;
+    }
+
+    /**
+     * @return the smallest ID in this set that is greater than or equal to from, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        int i = from >> 6;
+        int n = wordCount();
+        if (i >= n)
+            return -1;
+        long w = getWord(i) & (-1L << from);
+        while (true) {
+            if (w != 0L)
+                return (i << 6) + Long.numberOfTrailingZeros(w);
+            if (++i >= n)
+                return -1;
+            w = getWord(i);
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains(((Integer) o).intValue());
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof IDSet)
+            return containsAll((IDSet) c);
+        return super.containsAll(c);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nextSetBit(0) < 0;
+    }
+
+    @Override
+    public int size() {
+        int n = 0;
+        for (int i = 0; i < wordCount(); i++)
+            n += Long.bitCount(getWord(i));
+        return n;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int next = nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (next < 0)
+                    throw new NoSuchElementException();
+                int current = next;
+                next = nextSetBit(current + 1);
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (o instanceof IDSet) {
+            IDSet other = (IDSet) o;
+            if (hash != other.hash)
+                return false;
+            int n = Math.max(wordCount(), other.wordCount());
+            for (int i = 0; i < n; i++) {
+                if (getWord(i) != other.getWord(i))
+                    return false;
+            }
+            return true;
+        }
+        return super.equals(o);
+    }
+
+    // Same as the hash code of a java.util.Set containing the same Integers
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
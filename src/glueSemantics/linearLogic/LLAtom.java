@@ -9,7 +9,6 @@
 
 package glueSemantics.linearLogic;
 
-import prover.Equality;
 
 import java.util.*;
 
@@ -23,48 +22,22 @@ public class LLAtom extends LLTerm {
     }
 
 
-    private String name;
-    public LLType lltype;
+    private final String name;
+    private final LLType lltype;
+    // Number of a canonical variable, -1 for constants; set by the LLTermFactory
+    private int index = -1;
 
 
-
-
-    public LLAtom(String name, Type type, LLType lltype, boolean pol) {
-        this.name = name;
-        this.setType(type);
-        this.setPolarity(pol);
-        this.setLLtype(lltype);
-    }
-
-    //binder variables are not polarized -- they can occur in positive and negative formulas
-    public LLAtom(String name, Type type, LLType lltype) {
+    // Use LLTermFactory.atom() to obtain canonical atoms
+    LLAtom(String name, Type type, LLType lltype) {
+        super(type, Objects.hash(name, type, lltype));
         this.name = name;
-        this.setType(type);
-        this.setLLtype(lltype);
-    }
-
-
-    public LLAtom(LLAtom term) {
-        this.assumptions = new HashSet<>(term.assumptions);
-        this.discharges = new HashSet<>(term.discharges);
-        this.name = term.getName();
-        this.setType(term.getType());
-        this.setPolarity(term.isPolarity());
-        this.setLLtype(term.getLLtype());
-
-
+        this.lltype = lltype;
     }
 
     @Override
     public String toString() {
-        if (this.assumptions.isEmpty())
-            return this.toPlainString();
-        else {
-            if (this.assumptions.size() == 1 && this.assumptions.contains(this) && this.discharges.isEmpty())
-                return "{" + name + "}";
-            else
-                return name + this.printAssumptions();
-        }
+        return this.toPlainString();
     }
 
     public String toPlainString() {
@@ -72,89 +45,61 @@ public class LLAtom extends LLTerm {
     }
 
 
-    // checks absolute equivalence (type and name)
     @Override
-    public boolean checkEquivalence(LLTerm term) {
-        if (term instanceof LLAtom) {
-            if (this.name.equals(((LLAtom) term).name)
-                    && this.getType().equals(((LLAtom) term).getType()))
-            {
-                return true;
-            }
-        }
-        return false;
-
+    public boolean isCompatible(LLTerm term) {
+        if (!(term instanceof LLAtom))
+            return false;
+        // canonical constants are compatible iff they are the same atom, a variable takes a constant of its type
+        if (lltype == LLType.CONST && ((LLAtom) term).lltype == LLType.CONST)
+            return this == term;
+        return lltype != ((LLAtom) term).lltype && getType() == term.getType();
     }
 
-    @Override
-    public LinkedHashSet<Equality> checkCompatibility(LLTerm term) {
-        if (term instanceof LLAtom) {
-            if (this.getLLtype().equals(LLType.VAR)) {
-                {
-                    if (((LLAtom) term).getLLtype().equals(LLType.VAR)) {
-                        // Not possible to unify two variables?
-                        return null;
-                    } else if ( ((LLAtom) term).getLLtype().equals(LLType.CONST) &&
-                            this.getType().equals((term.getType()))) {
-                        {
-                            LinkedHashSet<Equality> newEq = new LinkedHashSet<>();
-                            newEq.add(new Equality(this, (LLAtom) term));
-                            return newEq;
-                        }
-                    }
-                }
-            } else if (this.getLLtype().equals(LLType.CONST)) {
-                if (((LLAtom) term).getLLtype().equals(LLType.CONST)) {
-                    if (this.getName().equals(((LLAtom) term).getName()) &&
-                            this.getType().equals(term.getType())) {
-                        LinkedHashSet<Equality> emptyList = new LinkedHashSet<>();
-                        return emptyList;
-                    } else
-                        {
-                            return null;
-                        }
-                } else if (((LLAtom) term).getLLtype().equals(LLType.VAR) &&
-                        this.getType().equals(term.getType()))
-                    {
-                        LinkedHashSet<Equality> newEq = new LinkedHashSet<>();
-                        newEq.add(new Equality((LLAtom) term,  this));
-                        return newEq;
-                    }
-
-
-            }
-        }
-            return null;
-    }
 
-
-
-    // Getter and Setter name
+    // Getter name
     public String getName() {
         return name;
     }
 
-    public void setName(String name) {
-        this.name = name;
+    /*
+    Returns the number of a canonical variable. The numbers of all live variables are distinct and
+    small, so they can be used as array indexes (see prover.Substitution); the number of a variable that
+    was garbage collected is given to the next new variable. Constants have no number.
+    */
+    public int getIndex() {
+        return index;
     }
 
-    // Getter and setter LLType
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    // Getter LLType
     public LLType getLLtype() {
         return lltype;
     }
 
-    public void setLLtype(LLType lltype) {
-        this.lltype = lltype;
+
+    @Override
+    public boolean isModifier() {
+        return false;
     }
 
+    @Override
+    public boolean isGround() {
+        return lltype == LLType.CONST;
+    }
 
     @Override
-    public LLTerm clone() {
-        return new LLAtom(this   );
+    String computeSort() {
+        return String.valueOf(getType());
     }
 
     @Override
-    public boolean isModifier() {
-        return false;
+    boolean sameStructure(LLTerm term) {
+        return term instanceof LLAtom
+                && name.equals(((LLAtom) term).name)
+                && getType() == term.getType()
+                && lltype == ((LLAtom) term).lltype;
     }
 }
@@ -9,23 +9,21 @@
 
 package glueSemantics.linearLogic;
 
-import prover.Equality;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 import static glueSemantics.linearLogic.LLFormula.LLOperator.LLIMP;
 
 public class LLFormula extends LLTerm {
-    private LLTerm lhs;
-    private LLTerm rhs;
-    private LLOperator operator;
+    private final LLTerm lhs;
+    private final LLTerm rhs;
+    private final LLOperator operator;
 
-    private LLAtom variable;
+    // The variable bound by the (universal) quantifier of this formula, if any
+    private final LLAtom variable;
 
-    private HashMap<LLAtom,List<LLAtom>> boundVariables = new HashMap<>();
+    private final boolean ground;
 
     public enum LLOperator{
         LLIMP
@@ -48,210 +46,67 @@ public class LLFormula extends LLTerm {
 
     public LLOperator getOperator() { return operator; }
 
-    //Constructor for formulas without variables and with a linear implication as operator
-    public LLFormula(LLTerm lhs, LLTerm rhs, boolean pol) {
-        this.lhs = lhs;
-        this.rhs = rhs;
-        this.setPolarity(pol);
-        this.operator = LLIMP;
-    }
-
-    public LLFormula(LLTerm lhs, LLTerm rhs, boolean pol, LLAtom var) {
-        this.lhs = lhs;
-        this.rhs = rhs;
-        this.setPolarity(pol);
-        this.operator = LLIMP;
-        this.variable = var;
-
-        if(variable!= null) {
-            //List<LLAtom> bvl = Stream.concat(findBoundOccurrences(lhs).stream(),findBoundOccurrences(rhs).stream()).collect(Collectors.toList());
-            List<LLAtom> bvl = new ArrayList<>();
-            bvl.addAll(findBoundOccurrences(lhs));
-            bvl.addAll(findBoundOccurrences(rhs));
-            this.boundVariables.put(variable, bvl);
-        }
-    }
-
-
-    //Constructor for formulas without variables
-    public LLFormula(LLTerm lhs, LLOperator operator,LLTerm rhs, boolean pol) {
-        this.lhs = lhs;
-        this.rhs = rhs;
-        this.setPolarity(pol);
-        this.operator = operator;
-    }
-
 
-
-    //Constructor for formulas with variables
-    public LLFormula(LLTerm lhs, LLOperator operator, LLTerm rhs, boolean pol,
-                     LLAtom var) {
+    // Use LLTermFactory.formula() to obtain canonical formulas
+    LLFormula(LLTerm lhs, LLOperator operator, LLTerm rhs, LLAtom var) {
+        super(null, Objects.hash(lhs, operator, rhs, var));
         this.lhs = lhs;
         this.rhs = rhs;
-        this.setPolarity(pol);
         this.operator = operator;
         this.variable = var;
-
-        if (variable != null) {
-            List<LLAtom> bvl = new ArrayList<>();
-            bvl.addAll(findBoundOccurrences(lhs));
-            bvl.addAll(findBoundOccurrences(rhs));
-            this.boundVariables.put(variable, bvl);
-        }
-
+        this.ground = lhs.isGround() && rhs.isGround();
     }
 
-        public LLFormula(LLFormula f)
-        {
-            this.assumptions = new HashSet<>(f.assumptions);
-            this.discharges = new HashSet<>(f.discharges);
-            this.lhs = f.getLhs().clone();
-            this.rhs = f.getRhs().clone();
-            this.setPolarity(f.isPolarity());
-            this.operator = f.getOperator();
-            if (f.variable != null) {
-            this.variable = new LLAtom(f.variable);
-                List<LLAtom> bvl = Stream.concat(findBoundOccurrences(lhs).stream(),
-                        findBoundOccurrences(rhs).stream()).collect(Collectors.toList());
-                this.boundVariables.put(variable, bvl);
-            }
-
-        }
-
-
-
 
     /*
-    Represents the binder relation between the quantifier
-    and the variables in the scope of the quantifier
+    Variables carry over properties of corresponding constants.
+    Returns a new formula in which all occurrences of the bound variable are replaced by the
+    constant; the formula itself is not changed. Since terms are canonical, all occurrences
+    of the bound variable are the same object as the binder.
     */
-    public List<LLAtom> findBoundOccurrences(LLTerm term){
-
-
-        // Variables that are equivalent are bound by the quantifier
-        if (term instanceof LLAtom) {
-            if (((LLAtom) term).getLLtype() == LLAtom.LLType.VAR){
-
-                if (this.variable.checkEquivalence(term))
-                {
-                    List <LLAtom> var = new ArrayList<>();
-                    var.add((LLAtom) term);
-                    return var;
-                }
-            }
-
-            //Recursive call to find embedded instances of variables
-        } else if ( term instanceof LLFormula)
-        {
-            List <LLAtom> right = findBoundOccurrences(((LLFormula) term).getLhs());
-            List <LLAtom> left = findBoundOccurrences(((LLFormula) term).getRhs());
-
-            return Stream.concat(right.stream(), left.stream()).collect(Collectors.toList());
-        }
-        List<LLAtom> emptyList = Collections.emptyList();
-        return emptyList;
-    }
-
-
-
-    //Checks to which quantifier a specific variable belongs
-    public boolean isInstance(LLAtom var){
-
-        Set keys = boundVariables.keySet();
-        Iterator it = keys.iterator();
-
-        while (it.hasNext()){
-            Object o = it.next();
-            if (boundVariables.get(o).contains(var))
-            {
-                return true;
-            }
-        }
-        return false;
-    }
-
-
-    //Variables carry over properties of corresponding constants
-    public LLTerm instantiateVariables(Equality eq)
+    public LLTerm instantiate(LLAtom constant)
     {
-        if (this.isInstance(eq.getVariable()))
-        {
-            for (LLAtom var : boundVariables.get(this.variable))
-            {
-                var.setName(eq.getConstant().getName());
-                var.setLLtype(LLAtom.LLType.CONST);
-            }
+        if (variable == null)
             return this;
+        return substitute(this, variable, constant);
+    }
+
+    private static LLTerm substitute(LLTerm term, LLAtom var, LLAtom constant) {
+        if (term == var)
+            return constant;
+        if (term instanceof LLFormula && !term.isGround()) {
+            LLFormula f = (LLFormula) term;
+            return LLTermFactory.formula(substitute(f.lhs, var, constant), f.operator,
+                    substitute(f.rhs, var, constant), f.variable == var ? null : f.variable);
         }
-        return this;
+        return term;
     }
 
 
     @Override
     public String toString() {
-        String as = "";
-        String dc = "";
-        if (!(this.assumptions.isEmpty())) {
-            if (this.assumptions.size() == 1 && this.assumptions.contains(this))
-                return "{(" + lhs.toPlainString() + " " + "\u22B8" + " "  + rhs.toPlainString() + ")" + "}";
-            else
-                as = this.printAssumptions();
-        }
-
-        if (!this.discharges.isEmpty()) {
-            StringBuilder dcTemp = new StringBuilder();
-            for (LLTerm discharge : discharges) {
-                dcTemp.append(",");
-                dcTemp.append(discharge.toPlainString());
-            }
-            dc = "[" + dcTemp.substring(1,dcTemp.length()) + "]";
-        }
-
         return "(" + lhs.toPlainString()
-                + dc + " "
-                + "\u22B8" + " " + rhs.toString() + ")"
-                + as;
+                + " " + "⊸" + " " + rhs.toString() + ")";
     }
 
     public String toPlainString() {
-        return "(" + lhs.toPlainString() + " " + "\u22B8" + " "  + rhs.toPlainString() + ")";
-    }
-
-    @Override
-    public LLTerm clone() {
-        return new LLFormula(this   );
+        return "(" + lhs.toPlainString() + " " + "⊸" + " "  + rhs.toPlainString() + ")";
     }
 
 
+    // Formulas that only differ in their quantifier are equivalent
     @Override
     public boolean checkEquivalence(LLTerm term) {
-        if (term instanceof LLFormula) {
-            if (lhs.checkEquivalence(((LLFormula) term).lhs)
-                    && rhs.checkEquivalence(((LLFormula) term).rhs)) {
-                return true;
-            }
-        }
-        return false;
+        if (this == term)
+            return true;
+        return term instanceof LLFormula && lhs == ((LLFormula) term).lhs
+                && rhs == ((LLFormula) term).rhs && operator == ((LLFormula) term).operator;
     }
 
     @Override
-    public LinkedHashSet<Equality> checkCompatibility(LLTerm term) {
-        if (term instanceof LLFormula){
-            if (this.lhs.checkCompatibility(((LLFormula) term).lhs) != null &&
-                    this.rhs.checkCompatibility(((LLFormula) term).rhs) != null)
-                    {
-                LinkedHashSet<Equality> left = this.lhs.checkCompatibility(((LLFormula) term).lhs);
-                LinkedHashSet<Equality> right = this.rhs.checkCompatibility(((LLFormula) term).rhs);
-
-
-                LinkedHashSet<Equality> temp = new LinkedHashSet<>();
-                temp.addAll(right);
-                temp.addAll(left);
-                return temp;
-            }
-        }
-
-        return null;
+    public boolean isCompatible(LLTerm term) {
+        return term instanceof LLFormula && lhs.isCompatible(((LLFormula) term).lhs)
+                && rhs.isCompatible(((LLFormula) term).rhs);
     }
 
 
@@ -271,16 +126,21 @@ public class LLFormula extends LLTerm {
         return false;
     }
 
+    @Override
+    public boolean isGround() {
+        return ground;
+    }
 
+    @Override
+    String computeSort() {
+        return "(" + lhs.getSort() + ">" + rhs.getSort() + ")";
+    }
 
-
-    public void setVarbinding(LLFormula formula) {
-        this.variable = new LLAtom(formula.variable);
-
-            List<LLAtom> bvl = Stream.concat(findBoundOccurrences(lhs).stream(),
-                    findBoundOccurrences(rhs).stream()).collect(Collectors.toList());
-            this.boundVariables.put(variable, bvl);
-
-
+    @Override
+    boolean sameStructure(LLTerm term) {
+        if (!(term instanceof LLFormula))
+            return false;
+        LLFormula f = (LLFormula) term;
+        return lhs == f.lhs && rhs == f.rhs && operator == f.operator && variable == f.variable;
     }
 }
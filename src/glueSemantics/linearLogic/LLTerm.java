@@ -10,66 +10,91 @@
 package glueSemantics.linearLogic;
 
 
-import prover.Equality;
-
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Set;
-
+/**
+ * An immutable linear logic term. Terms are created by the LLTermFactory which makes sure that
+ * structurally identical terms are represented by the same object, so equivalence of two terms
+ * is a reference comparison. Assumptions and discharges are not part of the term, they are
+ * kept on the Premise that contains the term.
+ * @see LLTermFactory
+ */
 public abstract class LLTerm {
 
     public enum Type {
         E, T,
     }
 
-    private boolean polarity;
-    private Type type;
-    public Set<LLTerm> assumptions = new HashSet<>();
-    public Set<LLTerm> discharges = new HashSet<>();
-
-    //Default constructor
-    public LLTerm(){ }
-
+    private final Type type;
+    // Structural hash code; computed once in the constructor
+    private final int hash;
+    // Shape and types of the term, computed on demand
+    private String sort;
 
-    public boolean isPolarity() { return polarity; }
-
-    void setPolarity(boolean pol) { this.polarity = pol; }
+    LLTerm(Type type, int hash) {
+        this.type = type;
+        this.hash = hash;
+    }
 
-    public abstract boolean checkEquivalence(LLTerm term);
+    // Canonical terms are equivalent iff they are the same object
+    public boolean checkEquivalence(LLTerm term) {
+        return this == term;
+    }
 
-    public abstract LinkedHashSet<Equality> checkCompatibility(LLTerm term);
+    /*
+    Returns true iff the term can be unified with this term (see prover.Substitution).
+    Unlike a unification this does not allocate anything, so it is used to sort out
+    incompatible terms first.
+    */
+    public abstract boolean isCompatible(LLTerm term);
 
     public Type getType(){
         return this.type;
     }
 
-    public void setType(Type type) {
-        this.type = type;
-    }
-
     public String toPlainString() {
         return super.toString();
     }
 
     public abstract boolean isModifier();
 
-    // This is not a regular clone() method, it just calls the copy constructor
-    // of the respective class.
-    public abstract LLTerm clone();
-
-    String printAssumptions() {
-        StringBuilder sb = new StringBuilder();
-        ArrayList<LLTerm> as = new ArrayList<>(assumptions);
-        sb.append("{");
-        for (int i = 0; i < as.size(); i++) {
-            sb.append(as.get(i).toPlainString());
-            if (i+1 < as.size())
-                sb.append(",");
-        }
-        sb.append("}");
-        return sb.toString();
+    // true if the term contains no LL variables
+    public abstract boolean isGround();
+
+    /**
+     * The sort of a term is its shape together with the types of its atoms, e.g. "(e>t)" for
+     * both (g_e -o g_t) and (h_e -o X_t). Terms of different sorts are never compatible.
+     * @return the sort of this term
+     */
+    public String getSort() {
+        if (sort == null)
+            sort = computeSort();
+        return sort;
     }
 
+    abstract String computeSort();
+
+    // Terms are immutable, so there is nothing to copy.
+    public LLTerm clone() {
+        return this;
+    }
+
+    /*
+    Structural equality is only used by the LLTermFactory for looking up canonical terms.
+    Subterms of a term are always canonical, so they can be compared by reference.
+    */
+    abstract boolean sameStructure(LLTerm term);
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof LLTerm) || ((LLTerm) o).hash != hash)
+            return false;
+        return sameStructure((LLTerm) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package glueSemantics.linearLogic;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static glueSemantics.linearLogic.LLFormula.LLOperator.LLIMP;
+
+/**
+ * Hash-consing factory for linear logic terms. All LLAtoms and LLFormulas are created here,
+ * and structurally identical terms share one canonical instance. Since terms are immutable,
+ * canonical instances can be shared between premises, sequents and threads; two terms are
+ * equivalent iff they are the same object.
+ * The table only holds weak references to the canonical terms, so a term that is no longer used by
+ * any premise, sequent or cache is garbage collected and the table does not grow with every sentence
+ * of a long-running session. This keeps the invariant: as long as some copy of a term is reachable,
+ * it is the canonical one. The numbers of collected variables are reused (see LLAtom.getIndex()).
+ */
+public final class LLTermFactory {
+
+    private static final ConcurrentHashMap<TermRef,TermRef> canonicalTerms = new ConcurrentHashMap<>();
+    // References to collected terms, whose entries are removed on the next call of the factory
+    private static final ReferenceQueue<LLTerm> collected = new ReferenceQueue<>();
+    // Numbers of the live canonical variables; a new variable gets the lowest free number
+    private static final BitSet variableIndices = new BitSet();
+
+    private LLTermFactory() {}
+
+    public static LLAtom atom(String name, LLTerm.Type type, LLAtom.LLType lltype) {
+        LLAtom atom = new LLAtom(name, type, lltype);
+        if (lltype != LLAtom.LLType.VAR)
+            return (LLAtom) intern(atom);
+        // the number is set before the canonical variable becomes visible to other threads
+        synchronized (variableIndices) {
+            expungeCollected();
+            TermRef existing = canonicalTerms.get(new TermRef(atom, null, -1));
+            LLTerm canonical = existing == null ? null : existing.get();
+            if (canonical != null)
+                return (LLAtom) canonical;
+            int index = variableIndices.nextClearBit(0);
+            variableIndices.set(index);
+            atom.setIndex(index);
+            TermRef ref = new TermRef(atom, collected, index);
+            canonicalTerms.put(ref, ref);
+            return atom;
+        }
+    }
+
+    //Formula without variables and with a linear implication as operator
+    public static LLFormula formula(LLTerm lhs, LLTerm rhs) {
+        return formula(lhs, LLIMP, rhs, null);
+    }
+
+    //Formula with a quantified variable
+    public static LLFormula formula(LLTerm lhs, LLTerm rhs, LLAtom var) {
+        return formula(lhs, LLIMP, rhs, var);
+    }
+
+    public static LLFormula formula(LLTerm lhs, LLFormula.LLOperator operator, LLTerm rhs, LLAtom var) {
+        return (LLFormula) intern(new LLFormula(lhs, operator, rhs, var));
+    }
+
+    /*
+    Returns the canonical copy of a term. The term of an entry may be collected after the entry was
+    found; the entry is then removed and the lookup repeated, so that the term is only returned if
+    it was inserted or if no other copy is alive.
+    */
+    private static LLTerm intern(LLTerm term) {
+        expungeCollected();
+        TermRef ref = new TermRef(term, collected, -1);
+        while (true) {
+            TermRef existing = canonicalTerms.putIfAbsent(ref, ref);
+            if (existing == null)
+                return term;
+            LLTerm canonical = existing.get();
+            if (canonical != null)
+                return canonical;
+            canonicalTerms.remove(existing, existing);
+        }
+    }
+
+    // Removes the entries of collected terms and frees the numbers of collected variables
+    private static void expungeCollected() {
+        for (Object ref; (ref = collected.poll()) != null; ) {
+            TermRef stale = (TermRef) ref;
+            canonicalTerms.remove(stale, stale);
+            if (stale.index >= 0) {
+                synchronized (variableIndices) {
+                    variableIndices.clear(stale.index);
+                }
+            }
+        }
+    }
+
+    // Number of live canonical terms
+    public static int size() {
+        expungeCollected();
+        return canonicalTerms.size();
+    }
+
+
+    /*
+    A weak reference to a term that compares like the term itself. A reference whose term was collected
+    only equals itself. Variables keep their number, so that it can be freed when they are collected.
+    */
+    private static final class TermRef extends WeakReference<LLTerm> {
+        private final int hash;
+        private final int index;
+
+        private TermRef(LLTerm term, ReferenceQueue<LLTerm> queue, int index) {
+            super(term, queue);
+            this.hash = term.hashCode();
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof TermRef) || ((TermRef) o).hash != hash)
+                return false;
+            LLTerm term = get();
+            return term != null && term.equals(((TermRef) o).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
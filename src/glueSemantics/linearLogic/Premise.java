@@ -13,7 +13,7 @@ import glueSemantics.lexicon.LexicalEntry;
 import glueSemantics.semantics.SemanticRepresentation;
 import glueSemantics.semantics.lambda.SemanticExpression;
 
-import java.util.HashSet;
+import java.util.*;
 
 public class Premise {
     //Definitions for colored console output
@@ -24,13 +24,23 @@ public class Premise {
     public static final String ANSI_BLUE = "\u001B[34m";
 
 
-    private HashSet<Integer> premiseIDs;
+    private IDSet premiseIDs;
     private LLTerm glueTerm;
     private SemanticRepresentation semTerm;
     private Object func;
     private Object arg;
-
-    public HashSet<Integer> getPremiseIDs() {
+    /*
+    Assumptions and discharges are kept on the premise rather than on the (shared, immutable)
+    glue term. An assumption is a premise whose set of assumptions contains only itself.
+    Discharges are stored for each formula along the RHS spine of the glue term, e.g. for
+    (a[x] -o (b[y] -o c)) the list contains {x} and {y}.
+    */
+    private Set<Premise> assumptions = Collections.emptySet();
+    private List<Set<Premise>> discharges = Collections.emptyList();
+    // Other derivations of the same chart item that were packed into this premise
+    private List<Premise> alternatives = Collections.emptyList();
+
+    public IDSet getPremiseIDs() {
         return premiseIDs;
     }
 
@@ -47,30 +57,101 @@ public class Premise {
     public void setSemTerm(SemanticExpression semTerm) { this.semTerm = semTerm; }
 
 
-    public Premise(HashSet<Integer> premiseIDs, LLTerm llterm) {
+    public Premise(IDSet premiseIDs, LLTerm llterm) {
         this.premiseIDs = premiseIDs;
         this.glueTerm = llterm;
-        this.glueTerm.setPolarity(true);
     }
 
-    public Premise(HashSet<Integer> premiseIDs, SemanticRepresentation semTerm, LLTerm glueTerm) {
+    public Premise(IDSet premiseIDs, SemanticRepresentation semTerm, LLTerm glueTerm) {
         this.premiseIDs = premiseIDs;
         this.glueTerm = glueTerm;
         this.semTerm = semTerm;
     }
 
     //For work with Lexicon
-    public Premise(HashSet<Integer> premiseIDs, LexicalEntry lexEn) {
+    public Premise(IDSet premiseIDs, LexicalEntry lexEn) {
         this.premiseIDs = premiseIDs;
         this.glueTerm = lexEn.getLlTerm();
         this.semTerm = lexEn.getSem();
     }
 
 
+    public Set<Premise> getAssumptions() {
+        return assumptions;
+    }
+
+    public void setAssumptions(Set<Premise> assumptions) {
+        this.assumptions = assumptions;
+    }
+
+    // The discharges of the top level formula of the glue term
+    public Set<Premise> getDischarges() {
+        return discharges.isEmpty() ? Collections.emptySet() : discharges.get(0);
+    }
+
+    // The discharges of all formulas along the RHS spine of the glue term
+    public List<Set<Premise>> getSpineDischarges() {
+        return discharges;
+    }
+
+    public void setSpineDischarges(List<Set<Premise>> discharges) {
+        this.discharges = discharges;
+    }
+
+    public boolean isAssumption() {
+        return assumptions.size() == 1 && assumptions.contains(this);
+    }
+
+
     @Override
     public String toString() {
         //return ANSI_BLUE + glueTerm + ANSI_RESET + " : " + ANSI_YELLOW + semTerm + ANSI_RESET +  premiseIDs;
-        return glueTerm + " : " + semTerm +  premiseIDs;
+        return glueString() + " : " + semTerm +  premiseIDs;
+    }
+
+    // Like toString(), but with the meaning side in the Prolog output format
+    public String toPrologString() {
+        return glueString() + " : " + (semTerm == null ? null : semTerm.toPrologString()) +  premiseIDs;
+    }
+
+    // The glue term together with its assumptions and discharges
+    public String glueString() {
+        if (isAssumption() && (glueTerm instanceof LLFormula || getDischarges().isEmpty()))
+            return "{" + glueTerm.toPlainString() + "}";
+        String gl = spineString(glueTerm, 0);
+        if (!assumptions.isEmpty())
+            gl = gl + printAssumptions(assumptions);
+        return gl;
+    }
+
+    private String spineString(LLTerm term, int level) {
+        if (!(term instanceof LLFormula))
+            return term.toPlainString();
+        LLFormula f = (LLFormula) term;
+        String dc = "";
+        if (level < discharges.size() && !discharges.get(level).isEmpty()) {
+            StringBuilder dcTemp = new StringBuilder();
+            for (Premise discharge : discharges.get(level)) {
+                dcTemp.append(",");
+                dcTemp.append(discharge.getGlueTerm().toPlainString());
+            }
+            dc = "[" + dcTemp.substring(1) + "]";
+        }
+        return "(" + f.getLhs().toPlainString() + dc + " " + "\u22B8" + " "
+                + spineString(f.getRhs(), level + 1) + ")";
+    }
+
+    private static String printAssumptions(Set<Premise> assumptions) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        Iterator<Premise> it = assumptions.iterator();
+        while (it.hasNext()) {
+            sb.append(it.next().getGlueTerm().toPlainString());
+            if (it.hasNext())
+                sb.append(",");
+        }
+        sb.append("}");
+        return sb.toString();
     }
 
     @Override
@@ -79,6 +160,11 @@ public class Premise {
         return result;
     }
 
+    @Override
+    public int hashCode() {
+        return premiseIDs.hashCode();
+    }
+
     /**
      * Keeps track of all parents of a premise and is used to record a derivation history.
      * @param func
@@ -97,6 +183,22 @@ public class Premise {
         return this.arg;
     }
 
+    /**
+     * Packs another derivation of the same chart item (i.e. a premise with the same IDs, glue term,
+     * assumptions and discharges) into this premise. Only the history and meaning side of the
+     * alternative are relevant.
+     * @param alternative the premise that was derived along another path
+     */
+    public void addAlternative(Premise alternative) {
+        if (alternatives.isEmpty())
+            alternatives = new ArrayList<>();
+        alternatives.add(alternative);
+    }
+
+    public List<Premise> getAlternatives() {
+        return alternatives;
+    }
+
     public boolean isModifier() {
         return glueTerm.isModifier();
     }
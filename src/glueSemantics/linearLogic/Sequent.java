@@ -11,55 +11,61 @@ package glueSemantics.linearLogic;
 
 
 import glueSemantics.lexicon.LexicalEntry;
+import glueSemantics.synInterface.dependency.LexVariableHandler;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 
 public class Sequent {
     private List<Premise> lhs;
     private LLAtom rhs;
     private int idCounter;
+    // The variable names used by the premises; the prover takes new names for assumptions from here
+    private final LexVariableHandler variableHandler;
 
 
     public List<Premise> getLhs() {
         return lhs;
     }
 
+    public LexVariableHandler getVariableHandler() {
+        return variableHandler;
+    }
+
 
 
     public Sequent(List<LLTerm> parsedTerms,String msg) {
+        variableHandler = new LexVariableHandler();
         lhs = new ArrayList<>();
         for (idCounter = 0; idCounter < parsedTerms.size(); idCounter++) {
-            HashSet<Integer> idSet = new HashSet<>();
-            idSet.add(idCounter);
-            lhs.add(new Premise(idSet, parsedTerms.get(idCounter)));
+            lhs.add(new Premise(IDSet.of(idCounter), parsedTerms.get(idCounter)));
         }
     }
 
 
      public Sequent(List<LexicalEntry> lexEn) {
+         this(lexEn, new LexVariableHandler());
+     }
+
+     public Sequent(List<LexicalEntry> lexEn, LexVariableHandler variableHandler) {
+         this.variableHandler = variableHandler;
          lhs = new ArrayList<>();
          for (idCounter = 0; idCounter < lexEn.size(); idCounter++) {
-             HashSet<Integer> idSet = new HashSet<>();
-             idSet.add(idCounter);
-             lhs.add(new Premise(idSet, lexEn.get(idCounter)));
+             lhs.add(new Premise(IDSet.of(idCounter), lexEn.get(idCounter)));
          }
      }
 
     // Returns the set containing all index sets (usually singletons) of the sequent's premises
-    public HashSet<Integer> getMaxIDSet() {
-        HashSet<Integer> maxIDSet = new HashSet<>();
+    public IDSet getMaxIDSet() {
+        IDSet maxIDSet = IDSet.EMPTY;
         for (Premise premise : lhs) {
-            maxIDSet.addAll(premise.getPremiseIDs());
+            maxIDSet = maxIDSet.union(premise.getPremiseIDs());
         }
         return maxIDSet;
     }
 
-    public HashSet<Integer> getNewID() {
-        HashSet<Integer> newID = new HashSet<>();
-        newID.add(idCounter++);
-        return newID;
+    public IDSet getNewID() {
+        return IDSet.of(idCounter++);
     }
 
     @Override
@@ -53,7 +53,7 @@ public class LinearLogicParser {
     public LLTerm parse(String unparsedInput) throws ParserInputException {
         this.resetParser();
         try {
-            return parseTerm(unparsedInput, true);
+            return parseTerm(unparsedInput);
         }
         catch (StringIndexOutOfBoundsException se) {
             throw new ParserInputException(String.format("ParserError: Linear logic '%s' term seems to be malformed",unparsedInput));
@@ -63,12 +63,11 @@ public class LinearLogicParser {
     /**
      * Parse string as a glue expression
      * @param unparsedInput Input string to be parsed
-     * @param polarity Polarity of the term. Is positive by default but changes during recursive calls
      * @return An LLTerm
      * @throws ParserInputException
      * @throws StringIndexOutOfBoundsException
      */
-    private LLTerm parseTerm(String unparsedInput, boolean polarity) throws ParserInputException, StringIndexOutOfBoundsException {
+    private LLTerm parseTerm(String unparsedInput) throws ParserInputException, StringIndexOutOfBoundsException {
 
         //skip whitespaces
         while(unparsedInput.charAt(pos) == ' '){
@@ -87,21 +86,19 @@ public class LinearLogicParser {
                     pos++;
                     if (unparsedInput.charAt(pos ) == 'e') {
                         pos++;
-                        return new LLAtom( "" + (char) c,
-                                LLTerm.Type.E, LLAtom.LLType.CONST, polarity);
+                        return LLTermFactory.atom("" + (char) c, LLTerm.Type.E, LLAtom.LLType.CONST);
                     }
                     else if (unparsedInput.charAt(pos) == 't') {
                         pos++;
-                        return new LLAtom("" + (char) c,
-                                LLTerm.Type.T, LLAtom.LLType.CONST, polarity);
+                        return LLTermFactory.atom("" + (char) c, LLTerm.Type.T, LLAtom.LLType.CONST);
                     }
                     else
                         throw new ParserInputException(pos,"Type identifier expected (e or t)");
                 }
             } catch (StringIndexOutOfBoundsException e) {
-                return new LLAtom(""+(char) c, LLTerm.Type.E, LLAtom.LLType.CONST,polarity);
+                return LLTermFactory.atom(""+(char) c, LLTerm.Type.E, LLAtom.LLType.CONST);
             }
-            return new LLAtom(""+(char) c, LLTerm.Type.E, LLAtom.LLType.CONST, polarity);
+            return LLTermFactory.atom(""+(char) c, LLTerm.Type.E, LLAtom.LLType.CONST);
         }
 
         /*
@@ -114,37 +111,35 @@ public class LinearLogicParser {
                     pos++;
                     if (unparsedInput.charAt(pos) == 'e') {
                         pos++;
-                        return new LLAtom( "" + (char) c,
-                                LLTerm.Type.E, LLAtom.LLType.VAR, polarity);
+                        return LLTermFactory.atom("" + (char) c, LLTerm.Type.E, LLAtom.LLType.VAR);
                     }
                     else if (unparsedInput.charAt(pos) == 't') {
                         pos++;
-                        return new LLAtom( "" + (char) c,
-                                LLTerm.Type.T, LLAtom.LLType.VAR, polarity);
+                        return LLTermFactory.atom("" + (char) c, LLTerm.Type.T, LLAtom.LLType.VAR);
                     }
                     else
                         throw new ParserInputException(pos,"Type identifier expected (e or t)");
                 }
             } catch (StringIndexOutOfBoundsException e) {
-                return new LLAtom(""+(char) c, LLTerm.Type.T, LLAtom.LLType.VAR,polarity);
+                return LLTermFactory.atom(""+(char) c, LLTerm.Type.T, LLAtom.LLType.VAR);
             }
-            return new LLAtom(""+(char) c, LLTerm.Type.T, LLAtom.LLType.VAR,polarity);
+            return LLTermFactory.atom(""+(char) c, LLTerm.Type.T, LLAtom.LLType.VAR);
 
         }
 
         // character is a left parenthesis, set scope
         else if (c == 40) {
 
-            LLTerm left = parseTerm(unparsedInput, !polarity);
+            LLTerm left = parseTerm(unparsedInput);
             //skip whitespaces
             while(unparsedInput.charAt(pos) == ' '){
                 pos++;
             }
             if(unparsedInput.charAt(pos) == '-' && unparsedInput.charAt(pos+1) == 'o') {
                 pos += 2;
-                LLTerm right = parseTerm(unparsedInput, polarity);
+                LLTerm right = parseTerm(unparsedInput);
                 pos++;
-                return new LLFormula(left,right,polarity);
+                return LLTermFactory.formula(left,right);
             }
             throw new ParserInputException(pos,"implication expected");
 
@@ -160,15 +155,15 @@ public class LinearLogicParser {
         */
         else if (c == 14846080|| c == 65) {
             LLTerm var;
-            var = parseTerm(unparsedInput,polarity);
+            var = parseTerm(unparsedInput);
             if (!(var instanceof LLAtom && ((LLAtom) var).getLLtype() == LLAtom.LLType.VAR))
                 throw new ParserInputException(pos);
             pos++;
-            LLTerm left = parseTerm(unparsedInput, !polarity);
+            LLTerm left = parseTerm(unparsedInput);
             pos+=3;
-            LLTerm right = parseTerm(unparsedInput, polarity);
+            LLTerm right = parseTerm(unparsedInput);
             pos++;
-            return new LLFormula(left,right, polarity,(LLAtom) var);
+            return LLTermFactory.formula(left,right,(LLAtom) var);
 
         }
 
@@ -24,4 +24,9 @@ public interface SemanticRepresentation {
     public SemType getType();
 
     public SemanticRepresentation clone();
+
+    // Prints the term in the Prolog output format (see Settings.PROLOG)
+    public default String toPrologString() {
+        return toString();
+    }
 }
@@ -79,6 +79,15 @@ public class BinaryTerm extends SemanticExpression {
 
     @Override
     public String toString() {
+        return print(left.toString(), right.toString());
+    }
+
+    @Override
+    public String toPrologString() {
+        return print(left.toPrologString(), right.toPrologString());
+    }
+
+    private String print(String left, String right) {
         if (operator == AND)
             return left + " " + String.valueOf('\u2227') + " " + right;
         else if (operator == IMP)
@@ -12,11 +12,8 @@ package glueSemantics.semantics.lambda;
 import glueSemantics.semantics.FunctionalApplication;
 import glueSemantics.semantics.MeaningRepresentation;
 import glueSemantics.semantics.SemanticRepresentation;
-import prover.LLProver;
 import prover.ProverException;
 
-import static main.Settings.PLAIN;
-import static main.Settings.PROLOG;
 
 public class FuncApp extends SemanticExpression implements FunctionalApplication {
     private SemanticRepresentation functor;
@@ -121,11 +118,12 @@ public class FuncApp extends SemanticExpression implements FunctionalApplication
 
     @Override
     public String toString() {
-        if (LLProver.getSettings().getSemanticOutputStyle() == PROLOG)
-            return String.format("app(%s,%s)",functor.toString(),argument.toString());
-        else
-            return functor + "(" + argument + ")";
+        return functor + "(" + argument + ")";
+    }
 
+    @Override
+    public String toPrologString() {
+        return String.format("app(%s,%s)",functor.toPrologString(),argument.toPrologString());
     }
 
     @Override
@@ -11,8 +11,6 @@ package glueSemantics.semantics.lambda;
 
 
 import glueSemantics.semantics.SemanticRepresentation;
-import main.Settings;
-import prover.LLProver;
 
 import static glueSemantics.semantics.lambda.SemAtom.SemSort.VAR;
 
@@ -82,7 +80,12 @@ public class SemAtom extends SemanticExpression {
 
     @Override
     public String toString() {
-        if (LLProver.getSettings().getSemanticOutputStyle() == Settings.PROLOG && this.getSort() == VAR)
+        return name;
+    }
+
+    @Override
+    public String toPrologString() {
+        if (this.getSort() == VAR)
             return name.toUpperCase();
         else
             return name;
@@ -12,10 +12,8 @@ package glueSemantics.semantics.lambda;
 import glueSemantics.semantics.FunctionalAbstraction;
 import glueSemantics.semantics.FunctionalApplication;
 import glueSemantics.semantics.SemanticRepresentation;
-import prover.LLProver;
 import prover.ProverException;
 
-import static main.Settings.PROLOG;
 
 public class SemFunction extends SemanticExpression implements FunctionalAbstraction {
 
@@ -59,10 +57,12 @@ public class SemFunction extends SemanticExpression implements FunctionalAbstrac
 
     @Override
     public String toString() {
-        if(LLProver.getSettings().getSemanticOutputStyle() == PROLOG)
-            return String.format("lam(%s,%s)",binder.toString(),funcBody.toString());
-        else
-            return operator + binder.toStringTyped() + "." + funcBody.toString();
+        return operator + binder.toStringTyped() + "." + funcBody.toString();
+    }
+
+    @Override
+    public String toPrologString() {
+        return String.format("lam(%s,%s)",binder.toPrologString(),funcBody.toPrologString());
     }
 
 
@@ -63,15 +63,20 @@ public class SemPred extends SemanticExpression {
 
     @Override
     public String toString() {
-        return predForm + this.printArgs();
+        return predForm + this.printArgs(false);
+    }
+
+    @Override
+    public String toPrologString() {
+        return predForm + this.printArgs(true);
     }
 
 
-    private String printArgs() {
+    private String printArgs(boolean prolog) {
         StringBuilder sb = new StringBuilder();
         sb.append("(");
         for (int i = 0; i < argList.size(); i++) {
-            sb.append(argList.get(i));
+            sb.append(prolog ? argList.get(i).toPrologString() : argList.get(i).toString());
             if (i+1 < argList.size())
                 sb.append(",");
         }
@@ -66,6 +66,15 @@ public class SemQuantEx extends SemanticExpression {
 
     @Override
     public String toString() {
+        return print(binder.toString(), quantBody.toString());
+    }
+
+    @Override
+    public String toPrologString() {
+        return print(binder.toPrologString(), quantBody.toPrologString());
+    }
+
+    private String print(String binder, String quantBody) {
         if (quantifier == UNI)
             return String.valueOf('\u2200') + binder + "[" + quantBody + "]";
         else
@@ -11,7 +11,12 @@ package glueSemantics.synInterface.dependency;
 
 import java.util.*;
 
-public abstract class LexVariableHandler {
+/**
+ * Hands out fresh variable names for lexical entries and for the prover. Every sentence has its own
+ * handler, which is passed to the lexical entries created for it and carried by the sequent to the
+ * prover, so that names are unique within a deduction and independent of other deductions.
+ */
+public class LexVariableHandler {
     private static final int MAXINDEX = 5;
 
     public enum variableType{
@@ -28,7 +33,7 @@ Possibly add more types, e.g. SemVarE, SemVarT etc.
     }
 
 
-    private static HashMap<variableType,List<String>> usedVariables = usedVars();
+    private HashMap<variableType,List<String>> usedVariables = usedVars();
 
 
     //Instantiates memory for used vars
@@ -58,7 +63,8 @@ Possibly add more types, e.g. SemVarE, SemVarT etc.
     }
 
 
-    private static HashMap<variableType,List<String>> reservedVariables = reservedVars();
+    // only read after initialization, so it can be shared by all handlers
+    private static final HashMap<variableType,List<String>> reservedVariables = reservedVars();
 
 
     private static HashMap reservedVars()
@@ -94,7 +100,7 @@ Possibly add more types, e.g. SemVarE, SemVarT etc.
     }
 
 
-    public static String returnNewVar(variableType varType)
+    public String returnNewVar(variableType varType)
     {
         List<String> variables = reservedVariables.get(varType);
 
@@ -125,7 +131,7 @@ Possibly add more types, e.g. SemVarE, SemVarT etc.
         return null;
     }
 
-    public static void resetVars()
+    public void resetVars()
     {
         usedVariables = usedVars();
     }
@@ -33,12 +33,18 @@ public class SentenceMeaning {
     private GrammaticalStructure dependencyStructure;
     private LinkedHashMap<IndexedWord,List<Tuple>> dependencyMap;
     private List<LexicalEntry> lexicalEntries;
+    // Variable names of this sentence; the prover has to use the same handler (see Sequent)
+    private final LexVariableHandler variableHandler = new LexVariableHandler();
 
 
     public List<LexicalEntry> getLexicalEntries() {
         return lexicalEntries;
     }
 
+    public LexVariableHandler getVariableHandler() {
+        return variableHandler;
+    }
+
 
 
     public SentenceMeaning(String sentence) throws VariableBindingException, LexicalParserException {
@@ -47,7 +53,7 @@ public class SentenceMeaning {
 
         lexicalEntries = extractFromDependencyParse(parsedSentence);
 
-        Sequent testseq = new Sequent(lexicalEntries);
+        Sequent testseq = new Sequent(lexicalEntries, variableHandler);
 
     }
 
@@ -58,7 +64,7 @@ public class SentenceMeaning {
      */
     public List<LexicalEntry> extractFromDependencyParse(GrammaticalStructure parsedSentence) throws LexicalParserException {
         this.dependencyStructure = parsedSentence;
-        LexVariableHandler.resetVars();
+        variableHandler.resetVars();
         /* A depdency map is a hash map whose key is a word in the parsed sentence and whose value is
         a list of all (direct) dependencies of this word. For example:
         Every dog barks.
@@ -113,7 +119,7 @@ public class SentenceMeaning {
                 HashMap<String,List<LexicalEntry>> subj =
                         extractArgumentEntries(subcatFrame,"agent",
                                 t.right,
-                                LexVariableHandler.returnNewVar(LLatomE));
+                                variableHandler.returnNewVar(LLatomE));
                 List<LexicalEntry> main = subj.get("main");
 
                 lexicalEntries.add(main.get(0));
@@ -134,7 +140,7 @@ public class SentenceMeaning {
             else if (t.left.contains("obj"))
             {
                 HashMap<String,List<LexicalEntry>> obj = extractArgumentEntries(subcatFrame,"patient",t.right,
-                        LexVariableHandler.returnNewVar(LLatomE));
+                        variableHandler.returnNewVar(LLatomE));
 
                 List<LexicalEntry> main = (List<LexicalEntry>) obj.get("main");
 
@@ -164,7 +170,7 @@ public class SentenceMeaning {
         Verb rootverb;
 
         if (dependencyMap.get(root).isEmpty()) {
-            rootverb = new Verb(subcatFrame,root.value());
+            rootverb = new Verb(subcatFrame,root.value(), variableHandler);
             lexicalEntries.add(rootverb);
 
         }
@@ -252,8 +258,8 @@ public class SentenceMeaning {
         HashMap<String,List<LexicalEntry>> lexEn = new HashMap<>();
 
         if (iw.tag().equals("NN")) {
-            Noun main = new Noun(LexicalEntry.LexType.N_NN, identifier, iw.value());
-            subcatFrame.initializeQuantifiedRole(role, main, LexVariableHandler.returnNewVar(LLatomE));
+            Noun main = new Noun(LexicalEntry.LexType.N_NN, identifier, iw.value(), variableHandler);
+            subcatFrame.initializeQuantifiedRole(role, main, variableHandler.returnNewVar(LLatomE));
 
             lexEn.put("main", new ArrayList<LexicalEntry>(Arrays.asList(main)));
 
@@ -263,13 +269,13 @@ public class SentenceMeaning {
                     if (t.left.equals("amod")) {
                         if (!lexEn.containsKey("mod")) {
                             List<LexicalEntry> modifiers = new ArrayList<>();
-                            modifiers.add(new Modifier(identifier, t.right.value()));
+                            modifiers.add(new Modifier(identifier, t.right.value(), variableHandler));
                             lexEn.put("mod", modifiers);
                         } else {
-                            lexEn.get("mod").add(new Modifier(identifier, t.right.value()));
+                            lexEn.get("mod").add(new Modifier(identifier, t.right.value(), variableHandler));
                         }
                     } else if (t.left.equals("det")) {
-                        Determiner det = new Determiner(subcatFrame, t.right.value(), role);
+                        Determiner det = new Determiner(subcatFrame, t.right.value(), role, variableHandler);
 
                         lexEn.put("det", new ArrayList<LexicalEntry>(Arrays.asList(det)));
 
@@ -281,7 +287,7 @@ public class SentenceMeaning {
             }
         } else if (iw.tag().equals("NNP")) {
 
-            Noun main = new Noun(LexicalEntry.LexType.N_NNP,identifier,iw.value());
+            Noun main = new Noun(LexicalEntry.LexType.N_NNP,identifier,iw.value(), variableHandler);
             subcatFrame.initializeRole(role,main);
 
             lexEn.put("main",new ArrayList<LexicalEntry>(Arrays.asList(main)));
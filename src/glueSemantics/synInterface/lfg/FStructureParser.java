@@ -26,11 +26,17 @@ import static glueSemantics.synInterface.dependency.LexVariableHandler.variableT
 public class FStructureParser {
     private final static String[] functions = {"SUBJ", "OBJ", "OBL"};
     private List<LexicalEntry> lexicalEntries = new ArrayList<>();
+    // Variable names of this f-structure; the prover has to use the same handler (see Sequent)
+    private final LexVariableHandler variableHandler = new LexVariableHandler();
 
     public List<LexicalEntry> getLexicalEntries() {
         return lexicalEntries;
     }
 
+    public LexVariableHandler getVariableHandler() {
+        return variableHandler;
+    }
+
 
     public FStructureParser (Path inputpath) throws VariableBindingException, LexicalParserException {
             lexicalEntries = extractFromFStructureFile(inputpath);
@@ -95,7 +101,7 @@ public class FStructureParser {
 
             String nsyn = m.group(1);
 
-            String identifier = LexVariableHandler.returnNewVar(LLatomE);
+            String identifier = variableHandler.returnNewVar(LLatomE);
 
             // It is a common noun find potential determiners and create the lexical entry
             // Add the appropriate role to the subcatframe (for generating the verb later)
@@ -105,7 +111,7 @@ public class FStructureParser {
                 m = pred.matcher(full);
                 if(!m.find()) { throw new LexicalParserException(m);}
                 String predicate = m.group(1);
-                Noun main = new Noun(LexicalEntry.LexType.N_NN,identifier,predicate);
+                Noun main = new Noun(LexicalEntry.LexType.N_NN,identifier,predicate, variableHandler);
                 lexicalEntries.add(main);
 
                 m = Pattern.compile("attr\\(var\\("+i+"\\),'SPEC'\\),var\\((\\d+)\\)").matcher(full);
@@ -122,7 +128,7 @@ public class FStructureParser {
                             if(!m2.find()) { throw new LexicalParserException(m);}
                             // Create a new identifier String that is mapped as the scopeVar for the respective role and
                             // afterwards becomes the identifier of the quantifier.
-                            String quantIdentifier = LexVariableHandler.returnNewVar(LLatomE);
+                            String quantIdentifier = variableHandler.returnNewVar(LLatomE);
 
                             // Map grammatical function to role
                             String role = "<unknown>";
@@ -131,7 +137,7 @@ public class FStructureParser {
                                 case "OBJ"  : role = "patient"; break;
                             }
                             subcatFrame.initializeQuantifiedRole(role, main, quantIdentifier);
-                            LexicalEntry quant = new Determiner(subcatFrame,m2.group(1),role);
+                            LexicalEntry quant = new Determiner(subcatFrame,m2.group(1),role, variableHandler);
                             lexicalEntries.add(quant);
                             break;
                         // Specifier is a determiner
@@ -139,7 +145,7 @@ public class FStructureParser {
                             m2 =
                                     Pattern.compile("attr\\(var\\(" + m.group(2) + "\\),'PRED'\\),semform\\('(\\S+)',\\d+,\\[],\\[]\\)").matcher(full);
                             if(!m2.find()) { throw new LexicalParserException(m);}
-                            lexicalEntries.add(new Determiner(subcatFrame, m2.group(1), verbalArgs.get(i).toLowerCase()));
+                            lexicalEntries.add(new Determiner(subcatFrame, m2.group(1), verbalArgs.get(i).toLowerCase(), variableHandler));
                             break;
                             // Specifier is a number determiner
                         case "NUMBER":
@@ -165,7 +171,7 @@ public class FStructureParser {
                         predicate = predMatcher.group(1);
                     }
                 }
-                Noun main = new Noun(LexicalEntry.LexType.N_NNP,identifier,predicate.trim().substring(0,1));
+                Noun main = new Noun(LexicalEntry.LexType.N_NNP,identifier,predicate.trim().substring(0,1), variableHandler);
                 lexicalEntries.add(main);
 
                 switch (verbalArgs.get(i)) {
@@ -183,7 +189,7 @@ public class FStructureParser {
                 while (m.find()) {
                     Matcher modMatcher = Pattern.compile("attr\\(var\\(" + m.group(1) + "\\),'PRED'\\),semform\\('(\\S+)',\\d+,\\[],\\[]\\)").matcher(full);
                     if(!modMatcher.find()) { throw new LexicalParserException(m);}
-                    lexicalEntries.add(new Modifier(identifier,modMatcher.group(1)));
+                    lexicalEntries.add(new Modifier(identifier,modMatcher.group(1), variableHandler));
 
                 }
             }
@@ -193,7 +199,7 @@ public class FStructureParser {
         Pattern root = Pattern.compile("attr\\(var\\(0\\),'PRED'\\),semform\\('(\\S+)',\\d+,\\[(\\S+)],\\[]\\)");
         m = root.matcher(full);
         if(!m.find()) { throw new LexicalParserException(m);}
-        Verb rootverb = new Verb(subcatFrame,m.group(1));
+        Verb rootverb = new Verb(subcatFrame,m.group(1), variableHandler);
         lexicalEntries.add(rootverb);
 
         return lexicalEntries;
@@ -13,8 +13,46 @@ public class Settings {
     // TODO implement latex output
     //private final int LATEX = 2;
 
+    /*
+    HEPPLE: the chart loop over skeletons and modifiers
+    SCC: the same chart loop, but skeletons are combined in the topological order of the strongly
+    connected components of the category graph (Lev 2007) and dead-end items are discarded
+    */
+    public enum ProverStrategy {
+        HEPPLE,
+        SCC
+    }
+
+    /*
+    CHART: the chart prover (LLProver), which uses the strategy above
+    PROOF_NET: experimental search for proof structures (ProofNetProver), a tree search over the links
+    between the compiled premises
+    */
+    public enum ProverEngine {
+        CHART,
+        PROOF_NET
+    }
+
     private boolean betaReduce;
     private int semanticOutputStyle;
+    private ProverStrategy strategy = ProverStrategy.HEPPLE;
+    private ProverEngine engine = ProverEngine.CHART;
+    // Spread the combination attempts of the prover over several threads
+    private boolean parallel = false;
+    // Search on the glue side only and build meaning sides only for the solutions
+    private boolean lazySemantics = false;
+    /*
+    Budgets of a single deduction; 0 means unlimited. When a budget is used up the prover stops
+    and returns the solutions found so far.
+    */
+    private long timeLimit = 0;
+    private int maxAttempts = 0;
+    private int maxChartSize = 0;
+    /*
+    Beam search: if the width is above 0, the prover keeps only that many of the best items for every set
+    of premise IDs and category and returns at most that many readings, best first (see LLProver.setItemScorer())
+    */
+    private int beamWidth = 0;
 
     public Settings() {
         this.betaReduce = true;
@@ -41,4 +79,72 @@ public class Settings {
     public void setSemanticOutputStyle(int semanticOutputStyle) {
         this.semanticOutputStyle = semanticOutputStyle;
     }
+
+    public ProverStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(ProverStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public ProverEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(ProverEngine engine) {
+        this.engine = engine;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isLazySemantics() {
+        return lazySemantics;
+    }
+
+    public void setLazySemantics(boolean lazySemantics) {
+        this.lazySemantics = lazySemantics;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    // the wall-clock time limit of a deduction in milliseconds
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // the maximal number of combination attempts of a deduction
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getMaxChartSize() {
+        return maxChartSize;
+    }
+
+    // the maximal number of chart items of a deduction
+    public void setMaxChartSize(int maxChartSize) {
+        this.maxChartSize = maxChartSize;
+    }
+
+    public int getBeamWidth() {
+        return beamWidth;
+    }
+
+    // the number of items kept for every chart item; 0 means no beam
+    public void setBeamWidth(int beamWidth) {
+        this.beamWidth = beamWidth;
+    }
 }
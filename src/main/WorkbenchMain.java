@@ -12,10 +12,15 @@ import glueSemantics.linearLogic.Premise;
 import glueSemantics.linearLogic.Sequent;
 import glueSemantics.parser.GlueParser;
 import glueSemantics.parser.ParserInputException;
+import glueSemantics.synInterface.dependency.LexVariableHandler;
 import glueSemantics.synInterface.dependency.LexicalParserException;
 import glueSemantics.synInterface.dependency.SentenceMeaning;
 import glueSemantics.synInterface.lfg.FStructureParser;
+import prover.CompilationCache;
+import prover.DominanceGraph;
 import prover.LLProver;
+import prover.ProofCache;
+import prover.Prover;
 import prover.ProverException;
 import prover.VariableBindingException;
 
@@ -34,6 +39,14 @@ import java.util.Scanner;
 public class WorkbenchMain {
     // Initialize with default settings
     public static Settings settings = new Settings();
+    // Proofs shared by all sentences of a session; only used with the -cache option
+    public static ProofCache proofCache = null;
+    // Compiled premises shared by all sentences of a session
+    public static CompilationCache compilationCache = new CompilationCache(1000);
+    // Only count the readings of each sentence instead of printing them; set by the -count option
+    public static boolean countReadings = false;
+    // Print an underspecified representation instead of the readings; set by the -underspecified option
+    public static boolean underspecified = false;
 
     public static void main(String[] args) {
         settings = new Settings();
@@ -49,6 +62,29 @@ public class WorkbenchMain {
                 case ("-noreduce"):
                     settings.setBetaReduce(false);
                     break;
+                case ("-scc"):
+                    settings.setStrategy(Settings.ProverStrategy.SCC);
+                    break;
+                case ("-parallel"):
+                    settings.setParallel(true);
+                    break;
+                case ("-lazy"):
+                    settings.setLazySemantics(true);
+                    break;
+                case ("-underspecified"):
+                    underspecified = true;
+                    // the readings are only built on demand, so the search does not need meaning sides
+                    settings.setLazySemantics(true);
+                    break;
+                case ("-count"):
+                    countReadings = true;
+                    break;
+                case ("-proofnet"):
+                    settings.setEngine(Settings.ProverEngine.PROOF_NET);
+                    break;
+                case ("-cache"):
+                    proofCache = new ProofCache(1000);
+                    break;
             }
         }
 
@@ -59,7 +95,8 @@ public class WorkbenchMain {
         if (settings.getSemanticOutputStyle() == 1)
             outputMode = "prolog";
 
-        System.out.println(String.format("Current settings: automatic beta reduction: %s\t\toutput mode: %s", betaReduce, outputMode));
+        System.out.println(String.format("Current settings: automatic beta reduction: %s\t\toutput mode: %s\t\tstrategy: %s",
+                betaReduce, outputMode, settings.getStrategy().toString().toLowerCase()));
 
         // Check program parameters for a mode setting
         if (args.length > 0 && args[0].equals("-lfg")) {
@@ -105,7 +142,8 @@ public class WorkbenchMain {
             if (f != null) {
                 p = FileSystems.getDefault().getPath(f.getAbsolutePath());
 
-                searchProof(new FStructureParser(p).getLexicalEntries());
+                FStructureParser parser = new FStructureParser(p);
+                searchProof(parser.getLexicalEntries(), parser.getVariableHandler());
 
             }
             else
@@ -123,7 +161,8 @@ public class WorkbenchMain {
             if (input.equals("quit"))
                 break;
             try {
-                searchProof(new SentenceMeaning(input).getLexicalEntries());
+                SentenceMeaning sm = new SentenceMeaning(input);
+                searchProof(sm.getLexicalEntries(), sm.getVariableHandler());
             }
             catch (NoClassDefFoundError e) {
                 System.out.println("Could not initialize dependency parser. Please refer to the README for more information");
@@ -186,7 +225,7 @@ public class WorkbenchMain {
     public static void initiateDependencyMode(String sentence) throws LexicalParserException {
         try {
             SentenceMeaning sm = new SentenceMeaning(sentence);
-            searchProof(sm.getLexicalEntries());
+            searchProof(sm.getLexicalEntries(), sm.getVariableHandler());
         }
         catch (VariableBindingException e) {
             e.printStackTrace();
@@ -195,22 +234,47 @@ public class WorkbenchMain {
     }
 
     public static void searchProof(List<LexicalEntry> lexicalEntries) throws VariableBindingException {
-        LLProver prover = new LLProver(settings);
-        searchProof(prover,lexicalEntries);
+        searchProof(lexicalEntries, new LexVariableHandler());
+    }
+
+    // The variable handler has to be the one that was used for creating the lexical entries
+    public static void searchProof(List<LexicalEntry> lexicalEntries, LexVariableHandler variableHandler)
+            throws VariableBindingException {
+        Prover prover = Prover.create(settings);
+        prover.setCompilationCache(compilationCache);
+        // only the chart prover caches proofs
+        if (prover instanceof LLProver)
+            ((LLProver) prover).setProofCache(proofCache);
+        searchProof(prover, new Sequent(lexicalEntries, variableHandler));
     }
 
-    public static void searchProof(LLProver prover, List<LexicalEntry> lexicalEntries) throws VariableBindingException {
-        Sequent testseq = new Sequent(lexicalEntries);
+    public static void searchProof(Prover prover, List<LexicalEntry> lexicalEntries) throws VariableBindingException {
+        searchProof(prover, new Sequent(lexicalEntries));
+    }
 
+    public static void searchProof(Prover prover, Sequent testseq) throws VariableBindingException {
         System.out.println(testseq.toString());
 
         System.out.println("Searching for valid proofs...");
         List<Premise> result = null;
         try {
-            result = prover.deduce(testseq);
-            System.out.println("Found the following deduction(s): ");
-            for (Premise sol : result) {
-                System.out.println(sol.toString());
+            if (countReadings) {
+                System.out.println("Number of readings: " + prover.countReadings(testseq));
+            }
+            else if (underspecified) {
+                DominanceGraph graph = new DominanceGraph(prover.deduceForest(testseq));
+                System.out.println("Found the following underspecified representation: ");
+                System.out.println(graph);
+            }
+            else {
+                result = prover.deduce(testseq);
+                System.out.println("Found the following deduction(s): ");
+                for (Premise sol : result) {
+                    if (prover.getSettings().getSemanticOutputStyle() == Settings.PROLOG)
+                        System.out.println(sol.toPrologString());
+                    else
+                        System.out.println(sol.toString());
+                }
             }
         } catch (ProverException e) {
             e.printStackTrace();
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.Premise;
+
+/**
+ * A scoring strategy for the agenda of the prover (see LLProver.setAgendaHeuristic()). The skeleton
+ * with the highest priority is processed first; skeletons with the same priority are processed
+ * in the order of the default agenda, i.e. the most recent one first.
+ * The heuristics only change the order in which the chart is built, not its contents, so a complete
+ * deduction finds the same readings with every heuristic. They pay off when the search is stopped
+ * early, e.g. after the first reading of deduceStream() or when a budget is used up.
+ */
+public interface AgendaHeuristic {
+
+    /*
+    Items spanning more premises of the sequent first; these are closest to the goal
+    */
+    AgendaHeuristic LARGEST_SPAN = p -> p.getPremiseIDs().size();
+
+    /*
+    Items with fewer open assumptions first; an assumption has to be discharged before the item
+    can be part of a solution
+    */
+    AgendaHeuristic FEWEST_ASSUMPTIONS = p -> -p.getAssumptions().size();
+
+    /*
+    Items spanning more premises first and of these the ones with fewer open assumptions
+    */
+    AgendaHeuristic SPAN_THEN_ASSUMPTIONS = p -> p.getPremiseIDs().size() * 64 - Math.min(p.getAssumptions().size(), 63);
+
+    /**
+     * Returns the priority of a skeleton; it is computed once, when the skeleton is put on the agenda
+     */
+    int priority(Premise p);
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.*;
+
+import java.util.*;
+
+/**
+ * The category graph of a sequent following Lev(2007). The nodes of the graph are the atomic
+ * categories (constant LL atoms) occurring in the compiled premises. For every premise of the form
+ * A1 -o (A2 -o ... -o B) there is an edge from the head of each Ai to the head of B, where the head
+ * of a term is its final consequent, i.e. a resource of category Ai is used to build one of
+ * category B. LL variables stand for any category of the same type.
+ * The strongly connected components of the graph are computed with Kosaraju's algorithm and
+ * numbered in topological order, so the rank of a category is never higher than the rank of
+ * the categories that can be built from it.
+ * Additionally the graph keeps track of which premises can consume an atomic category. An atomic
+ * chart item that does not contain all premise IDs is a dead end if none of the remaining premises
+ * has an antecedent for it.
+ */
+public class CategoryGraph {
+
+    private final List<LLAtom> nodes = new ArrayList<>();
+    private final HashMap<LLAtom,Integer> nodeIndex = new HashMap<>();
+    private final List<Set<Integer>> edges = new ArrayList<>();
+    private final List<Set<Integer>> reverseEdges = new ArrayList<>();
+    // IDs of all premises that have an atomic antecedent of the category, by node
+    private final List<IDSet> consumers = new ArrayList<>();
+    // strongly connected component of each node, numbered in topological order
+    private int[] component;
+    private int componentCount;
+
+
+    public CategoryGraph(Collection<Premise> premises) {
+        for (Premise p : premises)
+            collectNodes(p.getGlueTerm());
+        for (int i = 0; i < nodes.size(); i++) {
+            edges.add(new HashSet<>());
+            reverseEdges.add(new HashSet<>());
+            consumers.add(IDSet.EMPTY);
+        }
+        for (Premise p : premises)
+            addPremise(p);
+        findComponents();
+    }
+
+    private void collectNodes(LLTerm term) {
+        if (term instanceof LLFormula) {
+            collectNodes(((LLFormula) term).getLhs());
+            collectNodes(((LLFormula) term).getRhs());
+        }
+        else if (term instanceof LLAtom && term.isGround() && !nodeIndex.containsKey(term)) {
+            nodeIndex.put((LLAtom) term, nodes.size());
+            nodes.add((LLAtom) term);
+        }
+    }
+
+    private void addPremise(Premise p) {
+        LLAtom result = head(p.getGlueTerm());
+        LLTerm term = p.getGlueTerm();
+        while (term instanceof LLFormula) {
+            LLTerm antecedent = ((LLFormula) term).getLhs();
+            LLAtom antecedentHead = head(antecedent);
+            if (antecedentHead == result && !result.isGround()) {
+                // the same variable on both sides only maps a category onto itself
+                for (int n : expand(result))
+                    addEdge(n, n);
+            }
+            else {
+                for (int from : expand(antecedentHead)) {
+                    for (int to : expand(result))
+                        addEdge(from, to);
+                }
+            }
+            if (antecedent instanceof LLAtom) {
+                for (int n : expand((LLAtom) antecedent))
+                    consumers.set(n, consumers.get(n).union(p.getPremiseIDs()));
+            }
+            term = ((LLFormula) term).getRhs();
+        }
+    }
+
+    private void addEdge(int from, int to) {
+        edges.get(from).add(to);
+        reverseEdges.get(to).add(from);
+    }
+
+    // The nodes a (possibly variable) atom stands for
+    private List<Integer> expand(LLAtom atom) {
+        if (atom.isGround()) {
+            Integer n = nodeIndex.get(atom);
+            return n == null ? Collections.emptyList() : Collections.singletonList(n);
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).getType() == atom.getType())
+                result.add(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the head of a glue term, i.e. the atom at the end of its RHS spine.
+     */
+    public static LLAtom head(LLTerm term) {
+        while (term instanceof LLFormula)
+            term = ((LLFormula) term).getRhs();
+        return (LLAtom) term;
+    }
+
+
+    /*
+    Kosaraju's algorithm: a first depth-first search records the nodes in order of completion,
+    a second one on the reversed graph, started from the nodes in reverse completion order,
+    collects one component at a time. The components are found in topological order.
+    */
+    private void findComponents() {
+        int n = nodes.size();
+        boolean[] visited = new boolean[n];
+        Deque<Integer> finished = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            if (!visited[i])
+                visit(i, visited, finished);
+        }
+
+        component = new int[n];
+        Arrays.fill(component, -1);
+        componentCount = 0;
+        while (!finished.isEmpty()) {
+            int start = finished.pop();
+            if (component[start] >= 0)
+                continue;
+            Deque<Integer> stack = new ArrayDeque<>();
+            stack.push(start);
+            component[start] = componentCount;
+            while (!stack.isEmpty()) {
+                int current = stack.pop();
+                for (int pred : reverseEdges.get(current)) {
+                    if (component[pred] < 0) {
+                        component[pred] = componentCount;
+                        stack.push(pred);
+                    }
+                }
+            }
+            componentCount++;
+        }
+    }
+
+    // Iterative depth-first search; pushes each node onto finished when it is completed
+    private void visit(int start, boolean[] visited, Deque<Integer> finished) {
+        Deque<Iterator<Integer>> path = new ArrayDeque<>();
+        Deque<Integer> pathNodes = new ArrayDeque<>();
+        visited[start] = true;
+        path.push(edges.get(start).iterator());
+        pathNodes.push(start);
+        while (!path.isEmpty()) {
+            Iterator<Integer> it = path.peek();
+            if (it.hasNext()) {
+                int next = it.next();
+                if (!visited[next]) {
+                    visited[next] = true;
+                    path.push(edges.get(next).iterator());
+                    pathNodes.push(next);
+                }
+            }
+            else {
+                path.pop();
+                finished.push(pathNodes.pop());
+            }
+        }
+    }
+
+
+    /**
+     * Returns the rank of the strongly connected component of the head of a glue term. Items with
+     * a variable head (e.g. uninstantiated quantifiers) get rank 0.
+     */
+    public int rank(LLTerm glue) {
+        Integer n = nodeIndex.get(head(glue));
+        return n == null ? 0 : component[n];
+    }
+
+    /**
+     * Checks whether an item of an atomic category can still be used, i.e. whether one of the
+     * premises that are not yet contained in the item has an antecedent of this category.
+     * @param category the glue term of the item
+     * @param used the premise IDs of the item
+     * @return false if the item is a dead end
+     */
+    public boolean canBeConsumed(LLAtom category, IDSet used) {
+        Integer n = nodeIndex.get(category);
+        if (n == null)
+            return true;
+        return !used.containsAll(consumers.get(n));
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.IDSet;
+import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.Premise;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Identifies a chart item of the prover. Two premises with the same key combine with exactly the
+ * same premises in exactly the same way, so they only differ in their meaning side and one of them
+ * can be merged into the other. The key consists of the premise IDs, the (canonical) glue term and
+ * the assumptions and discharges of the premise.
+ */
+final class ChartKey {
+    private final IDSet premiseIDs;
+    private final LLTerm glueTerm;
+    private final Set<Premise> assumptions;
+    private final List<Set<Premise>> discharges;
+    private final int hash;
+
+    ChartKey(Premise p) {
+        this.premiseIDs = p.getPremiseIDs();
+        this.glueTerm = p.getGlueTerm();
+        this.assumptions = p.getAssumptions();
+        this.discharges = p.getSpineDischarges();
+        this.hash = Objects.hash(premiseIDs, glueTerm, assumptions, discharges);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ChartKey))
+            return false;
+        ChartKey key = (ChartKey) o;
+        return hash == key.hash
+                && glueTerm == key.glueTerm
+                && premiseIDs.equals(key.premiseIDs)
+                && assumptions.equals(key.assumptions)
+                && discharges.equals(key.discharges);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.*;
+
+import java.util.*;
+
+/**
+ * Precomputed conditions under which two chart items can be combined. Once the premises of a sequent
+ * are compiled, every chart item is a compiled premise (its head) applied to some of its antecedents,
+ * so its category is one of the consequents along the spine of its head. For every compiled premise
+ * the matrix holds a bitmask of the premises with an antecedent that one of these categories can
+ * fill; the items of a premise can only be the argument of items of those premises. It also holds
+ * the IDs of the assumptions in every set of discharges, as the argument of a functor that
+ * discharges assumptions has to contain them.
+ * canCombine() checks these masks and the premise IDs of two items with a few bit operations, so
+ * that combinePremises() is only called for pairs that might succeed. It never rejects a pair that
+ * combinePremises() would combine. The matrix is built in time quadratic in the size of the compiled
+ * premises and is not changed afterwards, so it can be read concurrently.
+ */
+public class CombinabilityMatrix {
+
+    // For every compiled premise, the IDs of the premises whose antecedents its categories can fill
+    private final Map<Premise,IDSet> consumers = new IdentityHashMap<>();
+    // For every set of discharges of the compiled premises, the IDs of its assumptions
+    private final Map<Set<Premise>,IDSet> dischargeIDs = new IdentityHashMap<>();
+
+
+    public CombinabilityMatrix(Collection<Premise> premises) {
+        for (Premise arg : premises) {
+            List<LLTerm> categories = spine(arg.getGlueTerm());
+            IDSet ids = IDSet.EMPTY;
+            for (Premise func : premises) {
+                if (func != arg && canFill(categories, func.getGlueTerm()))
+                    ids = ids.union(func.getPremiseIDs());
+            }
+            consumers.put(arg, ids);
+        }
+        for (Premise p : premises) {
+            for (Set<Premise> discharges : p.getSpineDischarges()) {
+                IDSet ids = IDSet.EMPTY;
+                for (Premise assumption : discharges)
+                    ids = ids.union(assumption.getPremiseIDs());
+                dischargeIDs.put(discharges, ids);
+            }
+        }
+    }
+
+    // The glue term of a premise and the consequents along its spine
+    private static List<LLTerm> spine(LLTerm glue) {
+        List<LLTerm> categories = new ArrayList<>();
+        categories.add(glue);
+        while (glue instanceof LLFormula) {
+            glue = ((LLFormula) glue).getRhs();
+            categories.add(glue);
+        }
+        return categories;
+    }
+
+    // Returns true if one of the categories is compatible with an antecedent along the spine of a glue term
+    private static boolean canFill(List<LLTerm> categories, LLTerm glue) {
+        for (; glue instanceof LLFormula; glue = ((LLFormula) glue).getRhs()) {
+            LLTerm antecedent = ((LLFormula) glue).getLhs();
+            for (LLTerm category : categories) {
+                if (antecedent.isCompatible(category))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns false if the functor can certainly not be applied to the argument: if they share a premise,
+     * if the head of the argument cannot fill any antecedent of the head of the functor, or if the
+     * argument lacks the assumptions that the functor discharges (or has discharges of its own
+     * although the functor discharges nothing). Items whose heads are not in the matrix, e.g. those
+     * of premises added later, are only checked for shared premises.
+     */
+    public boolean canCombine(Premise func, Premise arg) {
+        if (!func.getPremiseIDs().disjoint(arg.getPremiseIDs()))
+            return false;
+        IDSet funcs = consumers.get(head(arg));
+        if (funcs != null && !funcs.containsAll(head(func).getPremiseIDs()))
+            return false;
+        if (func.getDischarges().isEmpty())
+            return arg.getDischarges().isEmpty();
+        IDSet required = dischargeIDs.get(func.getDischarges());
+        return required == null || arg.getPremiseIDs().containsAll(required);
+    }
+
+    // Returns the compiled premise that a chart item was derived from by applying it to arguments
+    private static Premise head(Premise item) {
+        while (item.getFunc() instanceof Premise)
+            item = (Premise) item.getFunc();
+        return item;
+    }
+}
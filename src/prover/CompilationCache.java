@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.IDSet;
+import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.Premise;
+import glueSemantics.linearLogic.Sequent;
+import glueSemantics.semantics.MeaningRepresentation;
+import glueSemantics.semantics.SemanticRepresentation;
+import glueSemantics.semantics.lambda.FuncApp;
+import glueSemantics.semantics.lambda.SemAtom;
+import glueSemantics.semantics.lambda.SemFunction;
+import glueSemantics.semantics.lambda.SemType;
+import glueSemantics.synInterface.dependency.LexVariableHandler;
+
+import java.util.*;
+
+import static glueSemantics.semantics.lambda.SemAtom.SemSort.VAR;
+import static glueSemantics.semantics.lambda.SemType.AtomicType.T;
+import static glueSemantics.semantics.lambda.SemType.AtomicType.TEMP;
+import static glueSemantics.synInterface.dependency.LexVariableHandler.variableType.SemVar;
+import static glueSemantics.synInterface.dependency.LexVariableHandler.variableType.SemVarE;
+
+/**
+ * A cache of Hepple compilations of nested premises (see LLProver.convert()). The result of
+ * compiling a premise only depends on its glue term and on whether its meaning side is a function,
+ * so most lexical entries of a corpus share a handful of compilations. For each of them the cache
+ * keeps a template: the compiled premise and the extracted assumptions, with the meaning side of the
+ * original premise, its IDs and the new variables as placeholders. A template is instantiated with
+ * the meaning side and IDs of a new premise and with new IDs and variables of its sequent, which
+ * are taken in the same order as by the compilation itself, so the result is the same.
+ * Templates are immutable, so the same cache may be shared by several provers.
+ * The cache holds at most a given number of templates and evicts the least recently used one first.
+ */
+public class CompilationCache {
+
+    // Capacity of the cache that every prover creates for itself
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final LinkedHashMap<Key,Template> templates;
+    private long hits;
+
+
+    public CompilationCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity of a compilation cache must be at least 1");
+        this.capacity = capacity;
+        this.templates = new LinkedHashMap<Key,Template>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key,Template> eldest) {
+                return size() > CompilationCache.this.capacity;
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized void clear() {
+        templates.clear();
+        hits = 0;
+    }
+
+
+    /*
+    Returns the compilation of p, or null if there is no template for it yet. The extracted
+    assumptions are appended to the skeletons, like LLProver.convertNested() does.
+    */
+    Premise instantiate(Premise p, Sequent seq, List<Premise> skeletons) {
+        if (!p.getSpineDischarges().isEmpty())
+            return null;
+        Template template = lookup(new Key(p));
+        if (template == null)
+            return null;
+
+        Map<SemanticRepresentation,SemanticRepresentation> sems = new IdentityHashMap<>();
+        sems.put(template.source, p.getSemTerm());
+        for (int i = 0; i < template.variables.size(); i++)
+            sems.put(template.variables.get(i), newVariable(seq.getVariableHandler(), template.assumptionVariables[i]));
+        Map<IDSet,IDSet> ids = new HashMap<>();
+        ids.put(template.sourceIDs, p.getPremiseIDs());
+        // new IDs are taken in the order in which the compilation took them
+        List<Premise> byID = new ArrayList<>(template.assumptions);
+        byID.sort(Comparator.comparingInt(a -> a.getPremiseIDs().nextSetBit(0)));
+        for (Premise assumption : byID)
+            ids.put(assumption.getPremiseIDs(), seq.getNewID());
+
+        List<Premise> result = copy(template.compiled, template.assumptions, sems, ids);
+        skeletons.addAll(result.subList(1, result.size()));
+        return result.get(0);
+    }
+
+    /*
+    Stores the compilation of p. The variables are the new variables of the compilation in the order
+    in which they were created, assumption is true for the variables of assumptions.
+    */
+    void store(Premise p, Premise compiled, List<Premise> assumptions, List<SemAtom> variables, List<Boolean> assumption) {
+        if (!p.getSpineDischarges().isEmpty())
+            return;
+        // the template gets its own copy of the meaning sides
+        Map<SemanticRepresentation,SemanticRepresentation> sems = new IdentityHashMap<>();
+        sems.put(p.getSemTerm(), p.getSemTerm());
+        for (SemAtom var : variables)
+            sems.put(var, var);
+        Map<IDSet,IDSet> ids = new HashMap<>();
+        ids.put(p.getPremiseIDs(), p.getPremiseIDs());
+        for (Premise a : assumptions)
+            ids.put(a.getPremiseIDs(), a.getPremiseIDs());
+        List<Premise> copies = copy(compiled, assumptions, sems, ids);
+        boolean[] assumptionVariables = new boolean[assumption.size()];
+        for (int i = 0; i < assumptionVariables.length; i++)
+            assumptionVariables[i] = assumption.get(i);
+        put(new Key(p), new Template(p.getSemTerm(), p.getPremiseIDs(), copies.get(0),
+                copies.subList(1, copies.size()), variables, assumptionVariables));
+    }
+
+    // The templates are only locked while they are looked up or stored, not while they are copied
+    private synchronized Template lookup(Key key) {
+        Template template = templates.get(key);
+        if (template != null)
+            hits++;
+        return template;
+    }
+
+    private synchronized void put(Key key, Template template) {
+        templates.putIfAbsent(key, template);
+    }
+
+    /*
+    Creates a new variable of the compilation: the variable of an assumption or the binder
+    of the lambda term that discharges it
+    */
+    static SemAtom newVariable(LexVariableHandler variableHandler, boolean assumption) {
+        if (assumption)
+            return new SemAtom(VAR, variableHandler.returnNewVar(SemVarE), new SemType(TEMP));
+        return new SemAtom(VAR, variableHandler.returnNewVar(SemVar), T);
+    }
+
+
+    /*
+    Copies a compiled premise and its assumptions, replacing meaning sides and IDs. Returns the
+    copy of the compiled premise followed by the copies of the assumptions.
+    */
+    private static List<Premise> copy(Premise compiled, List<Premise> assumptions,
+                                      Map<SemanticRepresentation,SemanticRepresentation> sems, Map<IDSet,IDSet> ids) {
+        Map<Premise,Premise> premises = new IdentityHashMap<>();
+        List<Premise> result = new ArrayList<>();
+        for (Premise p : concat(compiled, assumptions)) {
+            Premise copy = new Premise(ids.get(p.getPremiseIDs()), copy(p.getSemTerm(), sems), p.getGlueTerm());
+            premises.put(p, copy);
+            result.add(copy);
+        }
+        for (Premise p : concat(compiled, assumptions)) {
+            Premise copy = premises.get(p);
+            if (!p.getAssumptions().isEmpty())
+                copy.setAssumptions(copy(p.getAssumptions(), premises));
+            List<Set<Premise>> discharges = new ArrayList<>();
+            for (Set<Premise> d : p.getSpineDischarges())
+                discharges.add(copy(d, premises));
+            if (!discharges.isEmpty())
+                copy.setSpineDischarges(discharges);
+        }
+        return result;
+    }
+
+    private static List<Premise> concat(Premise compiled, List<Premise> assumptions) {
+        List<Premise> all = new ArrayList<>(assumptions.size() + 1);
+        all.add(compiled);
+        all.addAll(assumptions);
+        return all;
+    }
+
+    private static Set<Premise> copy(Set<Premise> set, Map<Premise,Premise> premises) {
+        if (set.size() == 1)
+            return Collections.singleton(premises.get(set.iterator().next()));
+        Set<Premise> copy = new LinkedHashSet<>();
+        for (Premise p : set)
+            copy.add(premises.get(p));
+        return copy;
+    }
+
+    // The compilation only builds lambda terms and applications around the original meaning side
+    private static SemanticRepresentation copy(SemanticRepresentation sem,
+                                               Map<SemanticRepresentation,SemanticRepresentation> sems) {
+        if (sem == null)
+            return null;
+        SemanticRepresentation mapped = sems.get(sem);
+        if (mapped != null)
+            return mapped;
+        if (sem instanceof SemFunction)
+            return new SemFunction((SemAtom) copy(((SemFunction) sem).getBinder(), sems),
+                    copy(((SemFunction) sem).getFuncBody(), sems));
+        if (sem instanceof FuncApp)
+            return new FuncApp(copy(((FuncApp) sem).getFunctor(), sems), copy(((FuncApp) sem).getArgument(), sems));
+        return sem;
+    }
+
+
+    /*
+    Compilations are cached by glue term; LLProver.convertNested() only fails if the meaning side
+    of a nested premise is not a function
+    */
+    private static final class Key {
+        private final LLTerm glue;
+        private final boolean functional;
+
+        private Key(Premise p) {
+            this.glue = p.getGlueTerm();
+            this.functional = p.getSemTerm() instanceof SemFunction || p.getSemTerm() instanceof MeaningRepresentation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && glue == ((Key) o).glue && functional == ((Key) o).functional;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * glue.hashCode() + (functional ? 1 : 0);
+        }
+    }
+
+    private static final class Template {
+        private final SemanticRepresentation source;
+        private final IDSet sourceIDs;
+        private final Premise compiled;
+        private final List<Premise> assumptions;
+        private final List<SemAtom> variables;
+        private final boolean[] assumptionVariables;
+
+        private Template(SemanticRepresentation source, IDSet sourceIDs, Premise compiled, List<Premise> assumptions,
+                         List<SemAtom> variables, boolean[] assumptionVariables) {
+            this.source = source;
+            this.sourceIDs = sourceIDs;
+            this.compiled = compiled;
+            this.assumptions = assumptions;
+            this.variables = variables;
+            this.assumptionVariables = assumptionVariables;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.Premise;
+import glueSemantics.semantics.SemanticRepresentation;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * A packed representation of all derivations found by the prover. The nodes of the forest are
+ * chart items, i.e. premises. Every node has a list of derivations: the node itself and the
+ * alternatives that were merged into it, each with its own functor and argument (see
+ * Premise.getFunc() and Premise.getArg()). Functors and arguments are again nodes of the forest,
+ * premises without a history are its leaves. The roots are the solutions of the deduction.
+ * The forest is only as large as the chart, even if the number of readings is exponential.
+ * Readings are numbered from 0 to countReadings()-1 and only built on demand, one at a time.
+ */
+public class DerivationForest implements Iterable<Premise> {
+
+    private final List<Premise> roots;
+    private final boolean betaReduce;
+    // number of readings of each node visited so far
+    private final Map<Premise,Long> counts = new IdentityHashMap<>();
+    // the same with arbitrary precision, see countReadingsExact()
+    private final Map<Premise,BigInteger> exactCounts = new IdentityHashMap<>();
+
+
+    DerivationForest(List<Premise> roots, boolean betaReduce) {
+        this.roots = Collections.unmodifiableList(new ArrayList<>(roots));
+        this.betaReduce = betaReduce;
+    }
+
+    public List<Premise> getRoots() {
+        return roots;
+    }
+
+    /**
+     * Returns the derivations packed into a node: the node itself first, followed by its alternatives.
+     */
+    public List<Premise> getDerivations(Premise node) {
+        if (node.getAlternatives().isEmpty())
+            return Collections.singletonList(node);
+        List<Premise> derivations = new ArrayList<>();
+        derivations.add(node);
+        derivations.addAll(node.getAlternatives());
+        return derivations;
+    }
+
+    /**
+     * Returns the number of readings, i.e. the sum of the number of readings of all roots.
+     * @throws ArithmeticException if there are more than Long.MAX_VALUE readings, see countReadingsExact()
+     */
+    public long countReadings() {
+        return countReadingsExact().longValueExact();
+    }
+
+    /**
+     * Returns the number of readings of a node, the sum of the readings of its derivations.
+     * @throws ArithmeticException if the node has more than Long.MAX_VALUE readings
+     */
+    public long countReadings(Premise node) {
+        Long n = counts.get(node);
+        if (n != null)
+            return n;
+        long result = 0;
+        for (Premise derivation : getDerivations(node))
+            result = Math.addExact(result, countDerivation(derivation));
+        counts.put(node, result);
+        return result;
+    }
+
+    long countDerivation(Premise derivation) {
+        if (!hasHistory(derivation))
+            return 1;
+        return Math.multiplyExact(countReadings((Premise) derivation.getFunc()),
+                countReadings((Premise) derivation.getArg()));
+    }
+
+    /**
+     * Returns the exact number of readings. The number of readings can grow exponentially with the
+     * number of premises, so unlike countReadings() this never overflows. Like countReadings() it
+     * only visits every node once and builds no meaning sides.
+     */
+    public BigInteger countReadingsExact() {
+        BigInteger n = BigInteger.ZERO;
+        for (Premise root : roots)
+            n = n.add(countReadingsExact(root));
+        return n;
+    }
+
+    // Returns the exact number of readings of a node, see countReadings(Premise)
+    public BigInteger countReadingsExact(Premise node) {
+        BigInteger n = exactCounts.get(node);
+        if (n != null)
+            return n;
+        BigInteger result = BigInteger.ZERO;
+        for (Premise derivation : getDerivations(node)) {
+            if (hasHistory(derivation))
+                result = result.add(countReadingsExact((Premise) derivation.getFunc())
+                        .multiply(countReadingsExact((Premise) derivation.getArg())));
+            else
+                result = result.add(BigInteger.ONE);
+        }
+        exactCounts.put(node, result);
+        return result;
+    }
+
+    private static boolean hasHistory(Premise p) {
+        return p.getFunc() instanceof Premise && p.getArg() instanceof Premise;
+    }
+
+
+    /**
+     * Builds a single reading.
+     * @param index the number of the reading, between 0 and countReadings()-1
+     * @return a premise with the glue side and history of its root and the meaning side of the reading
+     */
+    public Premise getReading(long index) throws ProverException {
+        for (Premise root : roots) {
+            long n = countReadings(root);
+            if (index < n) {
+                SemanticRepresentation sem = buildReading(root, index);
+                // a root with a single reading is returned as it is
+                if (n == 1 && sem == root.getSemTerm())
+                    return root;
+                Premise reading = new Premise(root.getPremiseIDs(), sem, root.getGlueTerm());
+                reading.setHistory(root.getFunc(), root.getArg());
+                return reading;
+            }
+            index -= n;
+        }
+        throw new IndexOutOfBoundsException("No reading with index " + index);
+    }
+
+    /**
+     * Builds a single reading of one derivation of a root, without the readings of its alternatives.
+     * @param index the number of the reading, between 0 and countDerivation(derivation)-1
+     */
+    Premise getDerivationReading(Premise derivation, long index) throws ProverException {
+        SemanticRepresentation sem = buildDerivation(derivation, index);
+        if (sem == derivation.getSemTerm())
+            return derivation;
+        Premise reading = new Premise(derivation.getPremiseIDs(), sem, derivation.getGlueTerm());
+        reading.setHistory(derivation.getFunc(), derivation.getArg());
+        return reading;
+    }
+
+    /**
+     * Builds a reading chosen uniformly at random.
+     * @throws ArithmeticException if there are more than Long.MAX_VALUE readings
+     */
+    public Premise sample(Random random) throws ProverException {
+        long n = countReadings();
+        if (n == 0)
+            return null;
+        // draw from the largest multiple of n to avoid a bias towards small indices
+        long bound = Long.MAX_VALUE - Long.MAX_VALUE % n;
+        long r;
+        do {
+            r = random.nextLong() & Long.MAX_VALUE;
+        } while (r >= bound);
+        return getReading(r % n);
+    }
+
+    /**
+     * Returns an iterator that builds the readings in order, one at a time. A ProverException that
+     * occurs while building a reading is rethrown as an IllegalStateException.
+     * @throws ArithmeticException if there are more than Long.MAX_VALUE readings
+     */
+    @Override
+    public Iterator<Premise> iterator() {
+        return new Iterator<Premise>() {
+            private final long n = countReadings();
+            private long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < n;
+            }
+
+            @Override
+            public Premise next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                try {
+                    return getReading(next++);
+                } catch (ProverException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    /*
+    The readings of a node are numbered derivation by derivation; within a derivation the
+    reading of the functor is the major and that of the argument the minor index.
+    This is the same order in which LLProver.deduce() has always returned the readings.
+    */
+    private SemanticRepresentation buildReading(Premise node, long index) throws ProverException {
+        for (Premise derivation : getDerivations(node)) {
+            long n = countDerivation(derivation);
+            if (index < n)
+                return buildDerivation(derivation, index);
+            index -= n;
+        }
+        throw new IndexOutOfBoundsException("No reading with index " + index);
+    }
+
+    private SemanticRepresentation buildDerivation(Premise derivation, long index) throws ProverException {
+        if (!hasHistory(derivation))
+            return derivation.getSemTerm();
+        Premise func = (Premise) derivation.getFunc();
+        Premise arg = (Premise) derivation.getArg();
+        long argCount = countReadings(arg);
+        /*
+        The meaning side of the derivation was built from the only readings of its functor
+        and argument, unless the prover only searched on the glue side
+        */
+        if (countReadings(func) == 1 && argCount == 1 && derivation.getSemTerm() != null)
+            return derivation.getSemTerm();
+        SemanticRepresentation funcSem = buildReading(func, index / argCount);
+        SemanticRepresentation argSem = buildReading(arg, index % argCount);
+        return LLProver.applySemantics(funcSem.clone(), argSem, betaReduce);
+    }
+}
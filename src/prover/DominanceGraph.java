@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.Premise;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * An underspecified representation of the readings of a deduction, in the style of a dominance graph
+ * (Koller, Niehren & Thater 2003). The fragments are the compiled premises of the sequent. Every
+ * antecedent of a fragment is filled by the fragments that head its argument in some derivation:
+ * if there is only one, the two fragments are always joined directly; if there are several, the
+ * antecedent is a hole whose plugging is left open. An antecedent that discharges assumptions,
+ * e.g. the scope of a quantifier, dominates these assumptions (the variables it binds).
+ * The graph is read off the derivation forest of the chart, which plays the role of a dominance
+ * chart: it is only as large as the chart, although a sentence with n quantifiers has up to n!
+ * readings. Concrete readings are only built on demand, see getReading().
+ */
+public class DominanceGraph implements Iterable<Premise> {
+
+    private final DerivationForest forest;
+    // The fragments in the order of their IDs
+    private final List<Premise> fragments = new ArrayList<>();
+    // For every fragment and antecedent the fragments that fill it, in the order in which they were found
+    private final Map<Premise,List<Set<Premise>>> plugs = new IdentityHashMap<>();
+    // The heads of every node of the forest: the fragments it was derived from, each with the number
+    // of antecedents it was applied to
+    private final Map<Premise,Set<Head>> heads = new IdentityHashMap<>();
+
+
+    public DominanceGraph(DerivationForest forest) {
+        this.forest = forest;
+        for (Premise root : forest.getRoots())
+            headsOf(root);
+        fragments.sort(Comparator.comparingInt(p -> p.getPremiseIDs().nextSetBit(0)));
+    }
+
+    private Set<Head> headsOf(Premise node) {
+        Set<Head> result = heads.get(node);
+        if (result != null)
+            return result;
+        result = new LinkedHashSet<>();
+        heads.put(node, result);
+        for (Premise derivation : forest.getDerivations(node)) {
+            if (!(derivation.getFunc() instanceof Premise && derivation.getArg() instanceof Premise)) {
+                result.add(new Head(derivation, 0));
+                if (!plugs.containsKey(derivation)) {
+                    plugs.put(derivation, new ArrayList<>());
+                    fragments.add(derivation);
+                }
+                continue;
+            }
+            Set<Head> args = headsOf((Premise) derivation.getArg());
+            for (Head func : headsOf((Premise) derivation.getFunc())) {
+                List<Set<Premise>> antecedents = plugs.get(func.fragment);
+                while (antecedents.size() <= func.applied)
+                    antecedents.add(new LinkedHashSet<>());
+                for (Head arg : args)
+                    antecedents.get(func.applied).add(arg.fragment);
+                result.add(new Head(func.fragment, func.applied + 1));
+            }
+        }
+        return result;
+    }
+
+    public List<Premise> getFragments() {
+        return Collections.unmodifiableList(fragments);
+    }
+
+    /**
+     * Returns for every antecedent of a fragment that is filled in some reading the fragments that fill it
+     */
+    public List<Set<Premise>> getPlugs(Premise fragment) {
+        List<Set<Premise>> p = plugs.get(fragment);
+        return p == null ? Collections.emptyList() : Collections.unmodifiableList(p);
+    }
+
+    /**
+     * Returns true if the antecedent of a fragment is filled by different fragments in different
+     * readings, i.e. if it is a hole of the graph
+     */
+    public boolean isHole(Premise fragment, int antecedent) {
+        List<Set<Premise>> p = getPlugs(fragment);
+        return antecedent < p.size() && p.get(antecedent).size() > 1;
+    }
+
+    /**
+     * Returns the assumptions that an antecedent of a fragment discharges; the antecedent dominates them
+     * in every reading
+     */
+    public Set<Premise> getDominated(Premise fragment, int antecedent) {
+        List<Set<Premise>> discharges = fragment.getSpineDischarges();
+        return antecedent < discharges.size() ? discharges.get(antecedent) : Collections.emptySet();
+    }
+
+    // Returns the number of holes, i.e. of places where the readings differ
+    public int countHoles() {
+        int n = 0;
+        for (Premise fragment : fragments) {
+            for (int i = 0; i < getPlugs(fragment).size(); i++) {
+                if (isHole(fragment, i))
+                    n++;
+            }
+        }
+        return n;
+    }
+
+    // The exact number of readings, see DerivationForest.countReadingsExact()
+    public BigInteger countReadings() {
+        return forest.countReadingsExact();
+    }
+
+    /**
+     * Builds a single reading, see DerivationForest.getReading()
+     */
+    public Premise getReading(long index) throws ProverException {
+        return forest.getReading(index);
+    }
+
+    public DerivationForest getForest() {
+        return forest;
+    }
+
+    // Builds the readings in order, one at a time
+    @Override
+    public Iterator<Premise> iterator() {
+        return forest.iterator();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Premise fragment : fragments) {
+            sb.append(name(fragment)).append(' ').append(fragment).append('\n');
+            List<Set<Premise>> antecedents = getPlugs(fragment);
+            for (int i = 0; i < antecedents.size(); i++) {
+                sb.append("    ").append(i + 1).append(isHole(fragment, i) ? ": hole, plugged by " : ": ");
+                StringJoiner plugged = new StringJoiner(" | ");
+                for (Premise plug : antecedents.get(i))
+                    plugged.add(name(plug));
+                sb.append(plugged);
+                if (!getDominated(fragment, i).isEmpty()) {
+                    StringJoiner dominated = new StringJoiner(", ");
+                    for (Premise assumption : getDominated(fragment, i))
+                        dominated.add(name(assumption));
+                    sb.append(", dominates ").append(dominated);
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.append(countReadings()).append(" reading(s)").toString();
+    }
+
+    private static String name(Premise fragment) {
+        return "f" + fragment.getPremiseIDs().nextSetBit(0);
+    }
+
+
+    // A fragment applied to its first n antecedents
+    private static final class Head {
+        private final Premise fragment;
+        private final int applied;
+
+        private Head(Premise fragment, int applied) {
+            this.fragment = fragment;
+            this.applied = applied;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Head && fragment == ((Head) o).fragment && applied == ((Head) o).applied;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(fragment) + applied;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.LLFormula;
+import glueSemantics.linearLogic.Premise;
+
+import java.util.*;
+
+/**
+ * A scoring model for the beam search of the prover (see Settings.setBeamWidth() and
+ * LLProver.setItemScorer()). The score of a chart item is the sum of the scores of the combination
+ * steps of its derivation; the premises of the sequent score 0. Higher scores are better.
+ */
+public interface ItemScorer {
+
+    /*
+    Prefers the surface order of scope: a quantifier (see takesScope()) costs 1 for every quantifier
+    in its scope that comes before it in the sequent.
+    For a subject and an object this prefers wide scope of the subject.
+    */
+    ItemScorer SURFACE_SCOPE = (func, arg) -> {
+        if (!takesScope(func))
+            return 0;
+        int position = lexicalHead(func).getPremiseIDs().nextSetBit(0);
+        Set<Premise> inner = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectQuantifiers(arg, inner);
+        int cost = 0;
+        for (Premise quantifier : inner) {
+            if (quantifier.getPremiseIDs().nextSetBit(0) < position)
+                cost++;
+        }
+        return -cost;
+    };
+
+    /**
+     * Returns the score of applying a functor to an argument
+     */
+    double score(Premise func, Premise arg);
+
+
+    /*
+    Returns true if an item takes scope, i.e. if it discharges an assumption and its consequent is a
+    variable that is bound to the category of its scope, like that of a quantifier (h -o X) -o X
+    */
+    static boolean takesScope(Premise item) {
+        if (item.getDischarges().isEmpty() || !(item.getGlueTerm() instanceof LLFormula))
+            return false;
+        return !((LLFormula) item.getGlueTerm()).getRhs().isGround();
+    }
+
+    // Returns the premise of the sequent that a chart item was derived from by applying it to arguments
+    static Premise lexicalHead(Premise item) {
+        while (item.getFunc() instanceof Premise)
+            item = (Premise) item.getFunc();
+        return item;
+    }
+
+    // Collects the premises of the sequent that discharge an assumption in the derivation of an item
+    static void collectQuantifiers(Premise item, Set<Premise> quantifiers) {
+        if (!(item.getFunc() instanceof Premise && item.getArg() instanceof Premise))
+            return;
+        Premise func = (Premise) item.getFunc();
+        if (takesScope(func))
+            quantifiers.add(lexicalHead(func));
+        collectQuantifiers(func, quantifiers);
+        collectQuantifiers((Premise) item.getArg(), quantifiers);
+    }
+}
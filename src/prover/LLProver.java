@@ -12,59 +12,416 @@ package prover;
 import glueSemantics.semantics.MeaningRepresentation;
 import glueSemantics.semantics.SemanticRepresentation;
 import glueSemantics.semantics.lambda.*;
-import glueSemantics.synInterface.dependency.LexVariableHandler;
 import glueSemantics.linearLogic.*;
 import main.Settings;
 
+import java.math.BigInteger;
 import java.util.*;
-
-import static glueSemantics.semantics.lambda.SemType.AtomicType.TEMP;
-import static glueSemantics.synInterface.dependency.LexVariableHandler.variableType.SemVar;
-import static glueSemantics.synInterface.dependency.LexVariableHandler.variableType.SemVarE;
-import static glueSemantics.semantics.lambda.SemAtom.SemSort.VAR;
-import static glueSemantics.semantics.lambda.SemType.AtomicType.T;
-
-public class LLProver {
-    public static Settings getSettings() {
-        return settings;
-    }
-
-    public static void setSettings(Settings settings) {
-        LLProver.settings = settings;
-    }
-
-    private static Settings settings;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class LLProver implements Prover {
+    private final Settings settings;
 
     private LinkedList<Premise> skeletons;
-    private LinkedList<Premise> modifiers;
+    // Optional order of the skeletons, and the skeletons that have been ordered by it (see nextSkeleton())
+    private AgendaHeuristic agendaHeuristic;
+    private final PriorityQueue<AgendaItem> prioritized = new PriorityQueue<>(
+            Comparator.comparingInt((AgendaItem item) -> item.rank).thenComparingInt(item -> -item.priority)
+                    .thenComparingLong(item -> -item.ticket));
+    private long nextTicket;
+    private ArrayList<Premise> modifiers;
     private LinkedList<Premise> agenda;
-    private LinkedList<Premise> database;
+    private PremiseIndex database;
+    // Modifiers (A -o A) that have been checked against the database, by the category they modify
+    private final PremiseIndex modifierIndex = new PremiseIndex();
     private LinkedList<Premise> solutions;
+    // All derived premises by their chart item; used to merge equivalent derivations
+    private HashMap<ChartKey,Premise> chart;
+    // Streaming mode only: premises that have been combined with the database, and for each chart item
+    // the item with the same key that it replaced because that one had already been combined
+    private final Set<Premise> used = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Premise,Premise> previousItems = new IdentityHashMap<>();
+    // Streaming mode only: derivations of the goal that have not been returned yet
+    private final LinkedList<Premise> newSolutions = new LinkedList<>();
+    private boolean streaming;
+    // Set while counting readings: the prover then only searches on the glue side, see countReadings()
+    private boolean counting;
+    // State of the search loop, see searchStep(); the modifiers before nextModifier are in the modifier index
+    private boolean searching;
+    private int nextModifier;
+    // Budget of the current deduction, see outOfBudget()
+    private long deadline;
+    private boolean budgetExhausted;
+    private volatile Future<?> cancellation;
+    // Number of derived premises that were merged into an existing chart item during the last deduction
+    private int mergedDuplicates;
+    // Number of derived premises that did not fit into the beam or were dropped from it
+    private int beamPruned;
+    // Number of calls to combinePremises() during the last deduction
+    private final AtomicInteger combinationAttempts = new AtomicInteger();
+    // Which items of the compiled premises can combine at all, and the number of attempts it ruled out
+    private CombinabilityMatrix combinability;
+    private final AtomicInteger filteredAttempts = new AtomicInteger();
+    // Category graph of the current sequent; only used by the SCC strategy
+    private CategoryGraph categoryGraph;
+    /*
+    Beam search only (see Settings.getBeamWidth()): the scoring model, the score of every derived item,
+    the items kept in every chart cell and the items that were dropped from the beam again
+    */
+    private ItemScorer itemScorer;
+    private final Map<Premise,Double> scores = new IdentityHashMap<>();
+    private final Map<ChartKey,List<Premise>> beamCells = new HashMap<>();
+    private final Set<Premise> pruned = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Atoms of the current sequent that do not balance (see ResourceBalance); empty if the sequent may be provable
+    private Map<LLAtom,Integer> unbalancedAtoms = Collections.emptyMap();
+    // Number of derived premises that were discarded as dead ends by the SCC strategy
+    private int prunedDeadEnds;
+    // The discarded dead ends; they are reconsidered when a premise is added (see addPremise())
+    private final List<Premise> deadEnds = new ArrayList<>();
     /*
     Initialize the set containing the IDs of all premises of the sequent.
     This set is used to determine possible goal terms.
     */
-    private HashSet<Integer> goalIDs;
+    private IDSet goalIDs;
+    // Bindings of the current combination attempt; one per thread, as attempts may run in parallel
+    private static final ThreadLocal<Substitution> substitutions = ThreadLocal.withInitial(Substitution::new);
     private Sequent currSeq;
+    // Optional cache of proofs shared with other provers, and the premises compiled from each premise of the sequent
+    private ProofCache proofCache;
+    private final List<List<Premise>> compiledBySource = new ArrayList<>();
     private LinkedList<SemAtom> assumptionVars = new LinkedList<>();
+    // Cache of compiled premises, and the new variables of the compilation that is being stored in it
+    private CompilationCache compilationCache = new CompilationCache(CompilationCache.DEFAULT_CAPACITY);
+    private List<SemAtom> compiledVariables;
+    private List<Boolean> compiledAssumptionVariables;
 
     public LLProver(Settings settings) {
-        setSettings(settings);
+        this.settings = settings;
         this.skeletons = new LinkedList<>();
-        this.modifiers = new LinkedList<>();
+        this.modifiers = new ArrayList<>();
         this.agenda = new LinkedList<>();
-        this.database = new LinkedList<>();
+        this.database = new PremiseIndex();
         this.solutions = new LinkedList<>();
+        this.chart = new HashMap<>();
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public ProofCache getProofCache() {
+        return proofCache;
+    }
+
+    /**
+     * Sets a cache of proofs that is used by deduce() and deduceForest(); the same cache may be
+     * shared by several provers. Streaming deductions do not use the cache.
+     * @param proofCache the cache, or null to search every sequent
+     */
+    public void setProofCache(ProofCache proofCache) {
+        this.proofCache = proofCache;
+    }
+
+    public CompilationCache getCompilationCache() {
+        return compilationCache;
+    }
+
+    /**
+     * Sets the cache of compiled premises; by default every prover has a cache of its own. The same
+     * cache may be shared by several provers.
+     * @param compilationCache the cache, or null to compile every premise
+     */
+    public void setCompilationCache(CompilationCache compilationCache) {
+        this.compilationCache = compilationCache;
+    }
+
+    public AgendaHeuristic getAgendaHeuristic() {
+        return agendaHeuristic;
     }
 
     /**
-     * Does a deduction of a given sequent by evaluating the list of premises on its LHS
-     * and trying to find a valid proof for its RHS.
-     * @return A list of all valid deductions
+     * Sets the order in which skeletons are taken from the agenda. With the SCC strategy the heuristic
+     * only orders the skeletons whose categories have the same rank.
+     * @param agendaHeuristic the heuristic, or null to process the most recent skeleton first
+     */
+    public void setAgendaHeuristic(AgendaHeuristic agendaHeuristic) {
+        this.agendaHeuristic = agendaHeuristic;
+    }
+
+    public ItemScorer getItemScorer() {
+        return itemScorer;
+    }
+
+    /**
+     * Sets the scoring model of the beam search; it is only used if the beam width of the settings is
+     * above 0. Without a scoring model all items score 0, so the first items found are kept.
+     * @param itemScorer the scoring model, or null
+     */
+    public void setItemScorer(ItemScorer itemScorer) {
+        this.itemScorer = itemScorer;
+    }
+
+    // The score of a derived item in the last beam search; the premises of the sequent score 0
+    public double getScore(Premise item) {
+        return scores.getOrDefault(item, 0.0);
+    }
+
+    public int getBeamPruned() {
+        return beamPruned;
+    }
+
+    public int getMergedDuplicates() {
+        return mergedDuplicates;
+    }
+
+    public int getCombinationAttempts() {
+        return combinationAttempts.get();
+    }
+
+    // The number of combinations that the combinability matrix ruled out in the last deduction
+    public int getFilteredAttempts() {
+        return filteredAttempts.get();
+    }
+
+    public int getPrunedDeadEnds() {
+        return prunedDeadEnds;
+    }
+
+    /**
+     * Returns the atoms of the last sequent whose positive and negative occurrences do not balance,
+     * with the sum of their occurrences. If there are any, the sequent has no valid derivation and the
+     * prover did not search for one.
+     * @see ResourceBalance
+     */
+    public Map<LLAtom,Integer> getUnbalancedAtoms() {
+        return unbalancedAtoms;
+    }
+
+    /**
+     * Returns true if the last deduction was stopped because a budget was used up or because it
+     * was cancelled; its solutions are then only partial.
+     */
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    /**
+     * Does a deduction of a given sequent like deduce(), but returns the solutions as a packed
+     * forest of derivations instead of a list of readings. The readings can then be counted,
+     * sampled or enumerated without building all of them at once.
+     * @return the forest of all valid deductions
      * @throws ProverException If the proof is invalid
      * @throws VariableBindingException If an invalid variable binding is detected
+     * @see DerivationForest
+     */
+    public DerivationForest deduceForest(Sequent seq) throws ProverException,VariableBindingException {
+        // The canonical form has to be computed before the premises are compiled
+        ProofCache cache = proofCache;
+        // the beam search depends on the scoring model, so its results are not cached
+        ProofCache.CanonicalSequent canonical = cache == null || getSettings().getBeamWidth() > 0 ? null
+                : ProofCache.canonicalize(seq);
+        startDeduction(seq, false);
+        if (canonical != null) {
+            ProofCache.Entry entry = cache.lookup(canonical);
+            List<Premise> cached = entry == null ? null : ProofCache.rebuild(entry, canonical, compiledBySource);
+            if (cached != null) {
+                System.out.println("Proof cache hit: " + cached.size() + " solution(s)");
+                solutions.addAll(cached);
+                return new DerivationForest(solutions, getSettings().isBetaReduce());
+            }
+        }
+        while (searchStep());
+        finishDeduction();
+        // partial results are not cached
+        if (canonical != null && !budgetExhausted)
+            cache.store(canonical, compiledBySource, solutions);
+        return new DerivationForest(solutions, getSettings().isBetaReduce());
+    }
+
+    /**
+     * Counts the readings of a given sequent without building them. The prover searches on the glue
+     * side only, as with lazy semantics, and the readings are counted on the chart items of the
+     * solutions (see DerivationForest.countReadingsExact()). No meaning sides are built at all.
+     * @return the exact number of readings that deduce() would return
+     * @throws ProverException If the proof is invalid
+     * @throws VariableBindingException If an invalid variable binding is detected
+     */
+    public BigInteger countReadings(Sequent seq) throws ProverException,VariableBindingException {
+        counting = true;
+        try {
+            return deduceForest(seq).countReadingsExact();
+        }
+        finally {
+            counting = false;
+        }
+    }
+
+    /**
+     * Adds a premise to the sequent of the last deduction and continues that deduction. The chart of
+     * the last deduction is kept, so only combinations that involve the new premise or premises derived
+     * from it are tried. The goal is updated to contain the new premise as well, so the solutions of
+     * the last deduction are no longer solutions, but they remain in the chart.
+     * The premise gets a new ID of the sequent, its own IDs are ignored. Premises can only be added to
+     * a deduction that was done with deduce() or deduceForest(); if it was answered from the proof
+     * cache, the chart is built now.
+     * @param premise the new premise, with its meaning side and uncompiled glue side
+     * @return the forest of all valid deductions of the extended sequent
+     * @throws ProverException If the proof is invalid
+     * @throws VariableBindingException If an invalid variable binding is detected
+     */
+    public DerivationForest addPremise(Premise premise) throws ProverException,VariableBindingException {
+        if (currSeq == null || streaming)
+            throw new IllegalStateException("Premises can only be added after deduce() or deduceForest()");
+        resetCounters();
+        solutions.clear();
+        List<Premise> compiled = compile(new Premise(currSeq.getNewID(), premise.getSemTerm(), premise.getGlueTerm()));
+        currSeq.getLhs().addAll(compiled);
+        goalIDs = currSeq.getMaxIDSet();
+        combinability = new CombinabilityMatrix(currSeq.getLhs());
+        System.out.println("Added premises: " + compiled);
+
+        if (categoryGraph != null) {
+            categoryGraph = new CategoryGraph(currSeq.getLhs());
+            // the ranks of the queued skeletons may have changed
+            List<AgendaItem> queued = new ArrayList<>(prioritized);
+            prioritized.clear();
+            for (AgendaItem item : queued)
+                prioritized.add(new AgendaItem(item.premise, categoryGraph.rank(item.premise.getGlueTerm()),
+                        item.priority, item.ticket));
+            // dead ends may be consumed by the new premise
+            Iterator<Premise> it = deadEnds.iterator();
+            while (it.hasNext()) {
+                Premise deadEnd = it.next();
+                if (categoryGraph.canBeConsumed((LLAtom) deadEnd.getGlueTerm(), deadEnd.getPremiseIDs())) {
+                    it.remove();
+                    skeletons.push(deadEnd);
+                }
+            }
+        }
+
+        searching = checkBalance();
+        while (searchStep());
+        finishDeduction();
+        return new DerivationForest(solutions, getSettings().isBetaReduce());
+    }
+
+    /**
+     * Does a deduction of a given sequent like deduce(), but returns the readings one at a time as soon
+     * as they are found. The search only goes on while the stream asks for more readings, so e.g.
+     * deduceStream(seq).limit(k) stops after the first k readings. Exceptions of the prover are rethrown
+     * as IllegalStateException with the original exception as cause.
+     * The prover must not be used for another deduction until the stream is exhausted or discarded.
+     * @return a stream of all valid deductions, in the order in which they are found
+     */
+    public Stream<Premise> deduceStream(Sequent seq) {
+        startDeduction(seq, true);
+        Iterator<Premise> it = new Iterator<Premise>() {
+            private final DerivationForest forest = new DerivationForest(Collections.emptyList(),
+                    getSettings().isBetaReduce());
+            private Premise derivation;
+            private long next;
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (derivation == null || next == forest.countDerivation(derivation)) {
+                        if (!newSolutions.isEmpty()) {
+                            derivation = newSolutions.removeFirst();
+                            next = 0;
+                        }
+                        else if (finished || !searchStep() && newSolutions.isEmpty()) {
+                            if (!finished)
+                                finishDeduction();
+                            finished = true;
+                            return false;
+                        }
+                    }
+                    return true;
+                } catch (ProverException | VariableBindingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public Premise next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                try {
+                    return forest.getDerivationReading(derivation, next++);
+                } catch (ProverException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Does a deduction like deduce(), but stops the search as soon as k readings have been found.
+     * @param k the maximal number of readings
+     * @return A list of at most k valid deductions
+     */
+    public List<Premise> deduce(Sequent seq, int k) throws ProverException,VariableBindingException {
+        try {
+            return deduceStream(seq).limit(k).collect(Collectors.toList());
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof ProverException)
+                throw (ProverException) e.getCause();
+            if (e.getCause() instanceof VariableBindingException)
+                throw (VariableBindingException) e.getCause();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Does a deduction like deduce() in a thread of the common ForkJoinPool.
+     * @see #deduceAsync(Sequent, Executor)
      */
-    public List<Premise> deduce(Sequent seq) throws ProverException,VariableBindingException {
+    public CompletableFuture<List<Premise>> deduceAsync(Sequent seq) {
+        return deduceAsync(seq, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Does a deduction like deduce() with the given executor. Cancelling the returned future stops
+     * the search after the current step. The prover must not be used for another deduction until
+     * the future is completed.
+     * @return a future of the list of all valid deductions, or of those found until a budget was used up
+     */
+    public CompletableFuture<List<Premise>> deduceAsync(Sequent seq, Executor executor) {
+        CompletableFuture<List<Premise>> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (future.isCancelled())
+                return;
+            cancellation = future;
+            try {
+                future.complete(deduce(seq));
+            } catch (ProverException | VariableBindingException | RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                cancellation = null;
+            }
+        });
+        return future;
+    }
+
+
+    /*
+    Compiles the premises of the sequent and initializes the skeletons, the modifiers and the
+    database for a new deduction. In streaming mode derivations are not packed into chart items
+    that have already been combined with other premises (see mergeDuplicate()), so that the
+    readings of every solution are complete as soon as it is found.
+    */
+    private void startDeduction(Sequent seq, boolean streaming) {
+        this.streaming = streaming;
         this.currSeq = seq;
         /*
         Initialize an skeletons stack initially containing all premises from the sequent.
@@ -74,87 +431,254 @@ public class LLProver {
         implication elimination steps.
         */
         skeletons.clear();
+        prioritized.clear();
+        nextTicket = 0;
         modifiers.clear();
         database.clear();
         solutions.clear();
-
-        for (Premise p: currSeq.getLhs()) {
-
-            /*
-            * Check all premises for nested formulas. Alle nested formulas
-            * (with two or more nested operators) are compiled following the algorithm
-            * outlined by Hepple(1996). All extracted assumptions are added to the skeletons
-            * as new premises with new IDs. Assumptions are premises that contain themselves
-            * in their set of assumptions, but in the course of the derivation they may carry
-            * additional assumptions (when they combine with other assumptions).
-            */
-
-            try {
-                Premise compiled = convert(p);
-                if (!compiled.isModifier())
-                    skeletons.add(compiled);
-                else
-                    modifiers.add(compiled);
-                agenda.add(compiled);
-            } catch (ProverException e) {
-                e.printStackTrace();
-            }
-        }
+        chart.clear();
+        used.clear();
+        previousItems.clear();
+        newSolutions.clear();
+        deadEnds.clear();
+        scores.clear();
+        beamCells.clear();
+        pruned.clear();
+        unbalancedAtoms = Collections.emptyMap();
+        modifierIndex.clear();
+        nextModifier = 0;
+        resetCounters();
+        categoryGraph = null;
+        compiledBySource.clear();
+
+        for (Premise p: currSeq.getLhs())
+            compile(p);
         currSeq.getLhs().clear();
         currSeq.getLhs().addAll(skeletons);
         currSeq.getLhs().addAll(modifiers);
         goalIDs = currSeq.getMaxIDSet();
+        combinability = new CombinabilityMatrix(currSeq.getLhs());
         System.out.println("Agenda: "+ currSeq.getLhs().toString());
 
+        if (getSettings().getStrategy() == Settings.ProverStrategy.SCC) {
+            categoryGraph = new CategoryGraph(currSeq.getLhs());
+            System.out.println(String.format("Category graph: %d categories in %d strongly connected components",
+                    categoryGraph.size(), categoryGraph.getComponentCount()));
+        }
+
+        searching = hasSkeletons() && checkBalance();
+    }
+
+    /*
+    Checks that the atoms of the compiled premises balance. An unbalanced sequent has no valid
+    derivation, so the search is not started; the skeletons are kept in case a premise is added.
+    */
+    private boolean checkBalance() {
+        ResourceBalance balance = new ResourceBalance(currSeq.getLhs());
+        unbalancedAtoms = balance.getUnbalancedAtoms();
+        if (unbalancedAtoms.isEmpty())
+            return true;
+        System.out.println("The premises cannot be used up in a derivation. Unbalanced atoms: "
+                + balance.describeUnbalancedAtoms());
+        return false;
+    }
+
+    /*
+    Compiles the premises of a sequent for another engine (see ProofNetProver) without searching.
+    Returns the compiled premises, or null if they are not balanced.
+    */
+    List<Premise> compileSequent(Sequent seq) {
+        startDeduction(seq, false);
+        searching = false;
+        return unbalancedAtoms.isEmpty() ? new ArrayList<>(currSeq.getLhs()) : null;
+    }
+
+    // Resets the budget and the statistics for a new deduction or a new premise
+    private void resetCounters() {
+        budgetExhausted = false;
+        deadline = getSettings().getTimeLimit() > 0 ? System.nanoTime() + getSettings().getTimeLimit() * 1000000 : 0;
+        mergedDuplicates = 0;
+        combinationAttempts.set(0);
+        filteredAttempts.set(0);
+        prunedDeadEnds = 0;
+        beamPruned = 0;
+    }
+
+    /*
+    Compiles a premise of the sequent and adds the result and the extracted assumptions to the
+    skeletons or the modifiers. Returns the premises compiled from p.
+    */
+    private List<Premise> compile(Premise p) {
         /*
-        The algorithm loops over the skeletons until it is empty or until a premise is created
-        that contains all indexes of the sequent's premises and is therefore the goal.
+        * Check all premises for nested formulas. Alle nested formulas
+        * (with two or more nested operators) are compiled following the algorithm
+        * outlined by Hepple(1996). All extracted assumptions are added to the skeletons
+        * as new premises with new IDs. Assumptions are premises that contain themselves
+        * in their set of assumptions, but in the course of the derivation they may carry
+        * additional assumptions (when they combine with other assumptions).
         */
-        while (!skeletons.isEmpty() && solutions.isEmpty()) {
-            while (!skeletons.isEmpty()) {
-                Premise currentPremise = skeletons.pop();
 
-                // Check all database entries for possible combinations
-                checkDatabase(currentPremise);
-
-                // Check if one or more modifier are applicable to the premise and apply them right away
-/*            Iterator<Premise> it = modifiers.iterator();
-            while (it.hasNext()) {
-                Premise mod = it.next();
-                if (((LLFormula) mod.getGlueTerm()).getLhs().checkEquivalence(currentPremise.getGlueTerm())) {
-                    currentPremise = combinePremises(mod, currentPremise);
-                    // Remove modifier from modifier list.
-                    it.remove();
-                }
-            }*/
+        int extracted = skeletons.size();
+        List<Premise> fromSource = new ArrayList<>();
+        compiledBySource.add(fromSource);
+        try {
+            Premise compiled = convert(p);
+            // the assumptions that were extracted from p
+            fromSource.addAll(skeletons.subList(extracted, skeletons.size()));
+            fromSource.add(compiled);
+            if (!compiled.isModifier())
+                skeletons.add(compiled);
+            else
+                modifiers.add(compiled);
+            agenda.add(compiled);
+        } catch (ProverException e) {
+            e.printStackTrace();
+        }
+        return fromSource;
+    }
 
-                // After all combination checks are made, add the current premise to the database
-                database.addFirst(currentPremise);
-            }
-            ListIterator<Premise> modIterator = modifiers.listIterator();
-            // TODO other stop condition for the loop: ID set is full for one premise?
-            /*while(modIterator.hasNext()) {
-                if (checkDatabase(modIterator.next()))
-                    modIterator.remove();
-            }*/
-            for (Premise modifier : modifiers) {
-                checkDatabase(modifier);
-            }
+    /*
+    Does one step of the search and returns false if the search is finished.
+    The algorithm loops over the skeletons and the new modifiers until both are empty.
+    Skeletons are processed one by one: they are checked against the database and the applicable
+    modifiers and then added to the database. Following Gupta & Lamping(1998), modifiers are kept
+    apart: a new modifier is checked against the database once and then added to the modifier
+    index, where the skeletons that come later find it. This way every skeleton is checked against
+    every modifier exactly once. A step processes one skeleton or one modifier, or everything
+    in parallel mode.
+    */
+    private boolean searchStep() throws ProverException,VariableBindingException {
+        if (!searching)
+            return false;
+        if (outOfBudget()) {
+            searching = false;
+            return false;
         }
+        if (getSettings().isParallel()) {
+            combineInParallel();
+        }
+        else if (hasSkeletons()) {
+            Premise currentPremise = nextSkeleton();
+
+            // Check all database entries for possible combinations
+            checkDatabase(currentPremise, database.candidates(currentPremise));
+
+            // Check if one or more modifiers are applicable to the premise and apply them right away
+            checkDatabase(currentPremise, modifierIndex.candidates(currentPremise));
 
+            // After all combination checks are made, add the current premise to the database
+            database.add(currentPremise);
+            return true;
+        }
+        else if (nextModifier < modifiers.size()) {
+            Premise modifier = modifiers.get(nextModifier++);
+            checkDatabase(modifier, database.candidates(modifier));
+            modifierIndex.add(modifier);
+            return true;
+        }
+        searching = false;
+        return false;
+    }
 
+    /*
+    Checks the budgets of the deduction (see Settings) and whether it has been cancelled
+    */
+    private boolean outOfBudget() {
+        if (budgetExhausted)
+            return true;
+        Future<?> c = cancellation;
+        if (c != null && c.isCancelled())
+            budgetExhausted = true;
+        else if (deadline != 0 && System.nanoTime() - deadline > 0)
+            budgetExhausted = true;
+        else if (getSettings().getMaxAttempts() > 0 && combinationAttempts.get() >= getSettings().getMaxAttempts())
+            budgetExhausted = true;
+        else if (getSettings().getMaxChartSize() > 0 && chart.size() >= getSettings().getMaxChartSize())
+            budgetExhausted = true;
+        if (budgetExhausted)
+            System.out.println("Deduction stopped: budget used up or deduction cancelled.");
+        return budgetExhausted;
+    }
 
+    private void finishDeduction() {
         /*
         All premises of the skeletons were added to the database. If there are
         no possible solutions now, return a ProverException, otherwise return
         the set of solutions.
         */
-        if (solutions.isEmpty()) {
+        if (solutions.isEmpty() && unbalancedAtoms.isEmpty()) {
             //throw new ProverException("No valid proof found for premises");
             System.out.println("Found no valid full derivation, only partial derivations were found.");
         }
+        System.out.println("Merged " + mergedDuplicates + " duplicate derivations.");
+        System.out.println("Skipped " + filteredAttempts + " combinations that cannot succeed.");
+        if (categoryGraph != null)
+            System.out.println("Discarded " + prunedDeadEnds + " dead-end derivations.");
+        if (getSettings().getBeamWidth() > 0) {
+            System.out.println("Pruned " + beamPruned + " derivations from the beam.");
+            solutions.sort(Comparator.comparingDouble(this::getScore).reversed());
+        }
+
+    }
+
+
+    /*
+    Parallel version of the loop in deduce(). The skeletons and new modifiers are processed in waves:
+    every premise of a wave is checked against the database entries, the modifier index and the
+    premises of the wave before it, exactly like in the sequential loop. All combination attempts
+    of a wave are done in parallel in a ForkJoinPool, then the results are added to the chart in
+    the order of the attempts. This way the prover derives the same premises and therefore the
+    same set of readings as in sequential mode.
+    */
+    private void combineInParallel() throws VariableBindingException, ProverException {
+        List<Premise> currents = new ArrayList<>();
+        List<Premise> dbPremises = new ArrayList<>();
+        while ((hasSkeletons() || nextModifier < modifiers.size()) && !outOfBudget()) {
+            while (hasSkeletons()) {
+                Premise currentPremise = nextSkeleton();
+                addCandidates(currentPremise, database.candidates(currentPremise), currents, dbPremises);
+                addCandidates(currentPremise, modifierIndex.candidates(currentPremise), currents, dbPremises);
+                database.add(currentPremise);
+            }
+            while (nextModifier < modifiers.size()) {
+                Premise modifier = modifiers.get(nextModifier++);
+                addCandidates(modifier, database.candidates(modifier), currents, dbPremises);
+                modifierIndex.add(modifier);
+            }
+            combineInParallel(currents, dbPremises);
+        }
+    }
+
+    private void addCandidates(Premise currentPremise, List<Premise> candidates,
+                               List<Premise> currents, List<Premise> dbPremises) {
+        if (streaming)
+            used.add(currentPremise);
+        if (pruned.contains(currentPremise))
+            return;
+        for (Premise dbPremise : candidates) {
+            if (dbPremise == currentPremise || pruned.contains(dbPremise))
+                continue;
+            currents.add(currentPremise);
+            dbPremises.add(dbPremise);
+        }
+    }
 
-        return solutions;
+    // Tries all given combinations in parallel, adds the results to the chart and clears the lists
+    private void combineInParallel(List<Premise> currents, List<Premise> dbPremises)
+            throws VariableBindingException, ProverException {
+        ParallelCombination task = new ParallelCombination(this, currents, dbPremises);
+        ForkJoinPool.commonPool().invoke(task);
+        for (int i = 0; i < currents.size(); i++) {
+            Exception e = task.getException(i);
+            if (e instanceof VariableBindingException)
+                throw (VariableBindingException) e;
+            else if (e instanceof ProverException)
+                throw (ProverException) e;
+            if (task.getResult(i) != null)
+                addDerived(task.getResult(i), currents.get(i), dbPremises.get(i));
+        }
+        currents.clear();
+        dbPremises.clear();
     }
 
 
@@ -162,69 +686,232 @@ public class LLProver {
      * Checks the database for possible combinations with currentPremise, both as functor and as argument.
      * If modified is set to true (e.g. after all skeletons have been added to the database), this method
      * always adds new premises to the modifiers list, so because that list contains all modified premises.
+     * Only the given candidates of the index are checked, i.e. premises
+     * whose antecedent matches the category of currentPremise and premises whose category matches
+     * the antecedent of currentPremise.
      * @param currentPremise
+     * @param candidates the database entries to be checked
      * @throws VariableBindingException
      * @throws ProverException
      */
-    private boolean checkDatabase(Premise currentPremise) throws VariableBindingException, ProverException {
+    private boolean checkDatabase(Premise currentPremise, List<Premise> candidates)
+            throws VariableBindingException, ProverException {
         boolean hasCombined = false;
-        for (Premise dbPremise : database) {
-            if (dbPremise == currentPremise)
+        if (streaming)
+            used.add(currentPremise);
+        // items that were dropped from the beam are not combined any more
+        if (pruned.contains(currentPremise))
+            return false;
+        for (Premise dbPremise : candidates) {
+            if (dbPremise == currentPremise || pruned.contains(dbPremise))
                 continue;
-                /*
-                Check if the database term is a (complex) formula, if so try to do an
-                implication elimination step with the current term on the skeletons (currentPremise).
-                If successful add the newly created Premise to the database.
-                */
-            if (dbPremise.getGlueTerm() instanceof LLFormula) {
-
-                Premise newPremise = this.combinePremises(dbPremise, currentPremise);
-                if (newPremise != null) {
-                    hasCombined = true;
-                    newPremise.setHistory(dbPremise, currentPremise);
-                    System.out.println("Combining premises " + currentPremise + " and " + dbPremise);
-                    System.out.println("--> " + newPremise);
-                    if (newPremise.getPremiseIDs().equals(goalIDs)) {
-                        solutions.add(newPremise);
-                    }
-                    if (newPremise.isModifier()) {
-                        /*if (modifiers.contains(newPremise)|| solutions.contains(newPremise))
-                            modifiers.remove(currentPremise);
-                        else*/
-                            modifiers.add(newPremise);
-                    }
-                    else
-                        skeletons.push(newPremise);
-                    continue;
-                }
+            Premise newPremise = combineWithDatabase(currentPremise, dbPremise);
+            if (newPremise != null) {
+                hasCombined = true;
+                addDerived(newPremise, currentPremise, dbPremise);
             }
-                /*
-                Check if the current term on the skeletons list is a (complex) formula. If so, do the same procedure
-                as above, but reverse (apply dbPremise to currentPremise).
-                 */
-            if (currentPremise.getGlueTerm() instanceof LLFormula) {
-                Premise newPremise = this.combinePremises(currentPremise, dbPremise);
-                if (newPremise != null) {
-                    hasCombined = true;
-                    newPremise.setHistory(currentPremise, dbPremise);
-                    System.out.println("Combining premises " + currentPremise + " and " + dbPremise);
-                    System.out.println("-->" + newPremise);
-
-                    if (newPremise.getPremiseIDs().equals(goalIDs)) {
-                        solutions.add(newPremise);
-                    }
-                    if (newPremise.isModifier()) {
-                        /*if (modifiers.contains(newPremise)|| solutions.contains(newPremise))
-                            modifiers.remove(currentPremise);
-                        else*/
-                            modifiers.add(newPremise);
-                    }
-                    else
-                        skeletons.push(newPremise);
+        }
+        return hasCombined;
+    }
+
+    /**
+     * Tries to combine currentPremise with a database entry. First the database term is applied to
+     * currentPremise if it is a (complex) formula; if that is not possible, currentPremise is applied
+     * to the database term. Pairs that the combinability matrix rules out are not tried. This method
+     * only changes the counters of the prover, so it can be called concurrently (see ParallelCombination).
+     * @return the new premise with its history set, or null if the premises cannot be combined
+     */
+    Premise combineWithDatabase(Premise currentPremise, Premise dbPremise) throws VariableBindingException, ProverException {
+        /*
+        Check if the database term is a (complex) formula, if so try to do an
+        implication elimination step with the current term on the skeletons (currentPremise).
+        */
+        if (dbPremise.getGlueTerm() instanceof LLFormula && mightCombine(dbPremise, currentPremise)) {
+            Premise newPremise = this.combinePremises(dbPremise, currentPremise);
+            if (newPremise != null) {
+                newPremise.setHistory(dbPremise, currentPremise);
+                return newPremise;
+            }
+        }
+        /*
+        Check if the current term on the skeletons list is a (complex) formula. If so, do the same procedure
+        as above, but reverse (apply dbPremise to currentPremise).
+         */
+        if (currentPremise.getGlueTerm() instanceof LLFormula && mightCombine(currentPremise, dbPremise)) {
+            Premise newPremise = this.combinePremises(currentPremise, dbPremise);
+            if (newPremise != null) {
+                newPremise.setHistory(currentPremise, dbPremise);
+                return newPremise;
+            }
+        }
+        return null;
+    }
+
+    // Looks up a combination in the combinability matrix and counts it if the attempt can be skipped
+    private boolean mightCombine(Premise func, Premise arg) {
+        if (combinability == null || combinability.canCombine(func, arg))
+            return true;
+        filteredAttempts.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Adds a newly derived premise to the chart. If it contains all premise IDs it is a solution.
+     * Modifiers are added to the modifiers list, all other premises are pushed onto the skeletons.
+     */
+    void addDerived(Premise newPremise, Premise currentPremise, Premise dbPremise) {
+        System.out.println("Combining premises " + currentPremise + " and " + dbPremise);
+        System.out.println("--> " + newPremise);
+        if (getSettings().getBeamWidth() > 0 ? !enterBeam(newPremise) : mergeDuplicate(newPremise))
+            return;
+        if (newPremise.getPremiseIDs().equals(goalIDs)) {
+            solutions.add(newPremise);
+            if (streaming)
+                newSolutions.add(newPremise);
+        }
+        if (newPremise.isModifier()) {
+            modifiers.add(newPremise);
+        }
+        else if (!isDeadEnd(newPremise))
+            skeletons.push(newPremise);
+    }
+
+
+    private boolean hasSkeletons() {
+        return !skeletons.isEmpty() || !prioritized.isEmpty();
+    }
+
+    /**
+     * Returns the next skeleton premise to be processed. By default the skeletons are a stack.
+     * With an agenda heuristic or the SCC strategy the new skeletons are moved to a priority queue.
+     * With an agenda heuristic the one with the highest priority is returned (the most recent one
+     * if there are several).
+     * With the SCC strategy the premise whose category has the lowest rank in the category
+     * graph is returned (the one with the highest priority or else the most recent one if there
+     * are several), so that all items of a component are built before items of the components that
+     * depend on it are processed.
+     */
+    private Premise nextSkeleton() {
+        if (categoryGraph == null && agendaHeuristic == null)
+            return skeletons.pop();
+        // the oldest skeleton gets the lowest ticket, as in the stack
+        while (!skeletons.isEmpty()) {
+            Premise p = skeletons.removeLast();
+            int rank = categoryGraph == null ? 0 : categoryGraph.rank(p.getGlueTerm());
+            prioritized.add(new AgendaItem(p, rank, priority(p), nextTicket++));
+        }
+        return prioritized.poll().premise;
+    }
+
+    private int priority(Premise p) {
+        return agendaHeuristic == null ? 0 : agendaHeuristic.priority(p);
+    }
+
+    /*
+    With the SCC strategy, an atomic item that is not a solution is a dead end if none of the
+    premises it does not contain can consume it. Such items are never combined.
+    */
+    private boolean isDeadEnd(Premise p) {
+        if (categoryGraph == null || !(p.getGlueTerm() instanceof LLAtom)
+                || p.getPremiseIDs().equals(goalIDs))
+            return false;
+        if (categoryGraph.canBeConsumed((LLAtom) p.getGlueTerm(), p.getPremiseIDs()))
+            return false;
+        prunedDeadEnds++;
+        deadEnds.add(p);
+        return true;
+    }
+
+
+    /**
+     * Looks up the chart item of a newly derived premise. If there is no such item yet, the premise
+     * becomes the chart item and has to be processed further. Otherwise the premise is merged into
+     * the existing item: if it was derived from the same functor and argument as the item (or one
+     * of its alternatives) it is simply dropped, otherwise it is packed as an alternative derivation
+     * of the item. The meaning sides of packed alternatives are only unpacked for the solutions.
+     * @param newPremise a newly derived premise with its history set
+     * @return true if the premise was merged into an existing chart item
+     * @see DerivationForest
+     */
+    private boolean mergeDuplicate(Premise newPremise) {
+        ChartKey key = new ChartKey(newPremise);
+        Premise item = chart.putIfAbsent(key, newPremise);
+        if (item == null)
+            return false;
+        for (Premise previous = item; previous != null; previous = previousItems.get(previous)) {
+            if (sameDerivation(previous, newPremise)) {
+                mergedDuplicates++;
+                return true;
+            }
+            for (Premise alternative : previous.getAlternatives()) {
+                if (sameDerivation(alternative, newPremise)) {
+                    mergedDuplicates++;
+                    return true;
                 }
             }
         }
-        return hasCombined;
+        /*
+        In streaming mode the readings of an item that was already combined may have been returned,
+        so a new derivation becomes a new item that replaces the old one in the chart
+        */
+        if (streaming && used.contains(item)) {
+            chart.put(key, newPremise);
+            previousItems.put(newPremise, item);
+            return false;
+        }
+        mergedDuplicates++;
+        item.addAlternative(newPremise);
+        if (streaming && newPremise.getPremiseIDs().equals(goalIDs))
+            newSolutions.add(newPremise);
+        return true;
+    }
+
+    /*
+    Beam search: every derivation is scored on its own, so derivations are not packed. A new item is
+    kept if its chart cell holds fewer items than the beam width or if it scores better than the worst
+    of them, which is then dropped from the beam. Returns false if the item is not kept.
+    */
+    private boolean enterBeam(Premise newPremise) {
+        Premise func = (Premise) newPremise.getFunc();
+        Premise arg = (Premise) newPremise.getArg();
+        double score = getScore(func) + getScore(arg) + (itemScorer == null ? 0 : itemScorer.score(func, arg));
+        List<Premise> cell = beamCells.computeIfAbsent(new ChartKey(newPremise), k -> new ArrayList<>());
+        Premise worst = null;
+        for (Premise item : cell) {
+            if (sameDerivation(item, newPremise)) {
+                mergedDuplicates++;
+                return false;
+            }
+            if (worst == null || scores.get(item) < scores.get(worst))
+                worst = item;
+        }
+        if (cell.size() >= getSettings().getBeamWidth()) {
+            beamPruned++;
+            if (score <= scores.get(worst))
+                return false;
+            // Premise.equals() compares the IDs, which are the same for all items of a cell
+            Premise dropped = worst;
+            cell.removeIf(item -> item == dropped);
+            pruned.add(dropped);
+            solutions.removeIf(item -> item == dropped);
+        }
+        cell.add(newPremise);
+        scores.put(newPremise, score);
+        return true;
+    }
+
+    private static boolean sameDerivation(Premise p1, Premise p2) {
+        return p1.getFunc() == p2.getFunc() && p1.getArg() == p2.getArg();
+    }
+
+
+    // Applies the meaning side of a functor to that of its argument and beta-reduces the result
+    static SemanticRepresentation applySemantics(SemanticRepresentation funcSem, SemanticRepresentation argSem,
+                                                 boolean betaReduce) throws ProverException {
+        if (betaReduce)
+            return new FuncApp(funcSem,argSem).betaReduce();
+        else
+            return new FuncApp(funcSem,argSem);
     }
 
 
@@ -239,86 +926,59 @@ public class LLProver {
      @param arg the argument that should match the antecedent of the functor
      @return the combined premise if successful, null if otherwise
     */
-    private Premise combinePremises(Premise f, Premise arg) throws VariableBindingException, ProverException {
+    Premise combinePremises(Premise f, Premise arg) throws VariableBindingException, ProverException {
+        combinationAttempts.incrementAndGet();
 
+        /*
+        Most attempts fail, so first do the checks that only read the premises: the sets of indexes
+        must be disjoint, the glue terms compatible and the discharges of the functor must be
+        among the assumptions of the argument. Nothing is allocated for pairs that fail here.
+        */
+        LLTerm antecedent = ((LLFormula) f.getGlueTerm()).getLhs();
+        if (!f.getPremiseIDs().disjoint(arg.getPremiseIDs()) || !antecedent.isCompatible(arg.getGlueTerm()))
+            return null;
+        boolean hasDischarges = !f.getDischarges().isEmpty();
+        // The discharges are somehow incompatible, return null.
+        if (hasDischarges ? !arg.getAssumptions().containsAll(f.getDischarges()) : !arg.getDischarges().isEmpty())
+            return null;
 
-        // possible substitutions for variables and constants
-        Premise func = new Premise(f.getPremiseIDs(),f.getSemTerm().clone(),f.getGlueTerm().clone());
-
-        LinkedHashSet<Equality> eqs = ((LLFormula) func.getGlueTerm()).getLhs().checkCompatibility(arg.getGlueTerm());
-
-        if (eqs == null) {return null;}
-
-        if (eqs.size() > 0) {
+        LLTerm funcGlue = f.getGlueTerm();
+        // bindings of variables to constants; there are none between ground terms
+        if (!antecedent.isGround() || !arg.getGlueTerm().isGround()) {
+            Substitution bindings = substitutions.get();
+            bindings.clear();
+            bindings.unify(antecedent, arg.getGlueTerm());
 
             //If there are duplicate bindings no valid proof can be reached.
-            if (LLProver.checkDuplicateBinding(eqs)) {
+            if (bindings.hasConflict())
                 throw new VariableBindingException();
-            } else {
-                //instantiates variables with constants (i.e. skolemizes the formula so it can take a constant)
-
-                for (Equality eq : eqs) {
-                    ((LLFormula) func.getGlueTerm()).instantiateVariables(eq);
-                }
-            }
+            //instantiates the variable of the functor with its constant (i.e. skolemizes the formula so it can take a constant)
+            funcGlue = bindings.instantiate((LLFormula) funcGlue);
         }
 
-        Premise combined = null;
-
         // No assumptions or discharges involved, proceed with a "normal" implication elimination
-        if (arg.getGlueTerm().assumptions.isEmpty()
-                && arg.getGlueTerm().discharges.isEmpty()
-                && func.getGlueTerm().assumptions.isEmpty()
-                && func.getGlueTerm().discharges.isEmpty()) {
-            return combineDisjointID(func, arg);
-        }
-        /*
-        * Func or arg contain assumptions, but no discharges.
-        * Combine the terms and their sets of assumptions
-        * */
-        else if ((!arg.getGlueTerm().assumptions.isEmpty()
-                || !func.getGlueTerm().assumptions.isEmpty())
-                && arg.getGlueTerm().discharges.isEmpty()
-                && func.getGlueTerm().discharges.isEmpty()) {
-            combined = combineDisjointID(func, arg);
-
-            /* create new set of assumptions which can be modified independently from
-            the set of assumptions of arg and func and add all assumptions to it */
-            if (combined == null)
-                throw new ProverException("Meaning side does not match structure of glue side");
-            combined.getGlueTerm().assumptions = new HashSet<>();
-            combined.getGlueTerm().assumptions.addAll(arg.getGlueTerm().assumptions);
-            combined.getGlueTerm().assumptions.addAll(func.getGlueTerm().assumptions);
+        if (arg.getAssumptions().isEmpty() && f.getAssumptions().isEmpty() && !hasDischarges)
+            return combineDisjointID(f, funcGlue, arg);
 
-            return combined;
-        }
         /*
-        Functor has discharges, check if they are a subset of the argument's assumptions.
-        If so call combineDisjointID which checks the ID sets of func and arg and then
-        does the actual implication elimination step. For the new premise, all assumptions
-        from arg are copied, except the one that was discharged in func.
-        func: (b[a] -o c); arg: {a,(x -o y)} ==> c with assumption {(x -o y)}
-        */
-        else if (!func.getGlueTerm().discharges.isEmpty()) {
-            if (arg.getGlueTerm().assumptions.containsAll(func.getGlueTerm().discharges))
-            {
-
-                combined = combineDisjointID(func, arg);
-                /* create new set of assumptions which can be modified independently from
-                the sets of assumptions of arg and func and add all assumptions to it*/
-                if (combined == null)
-                    throw new ProverException("Meaning side does not match structure of glue side");
-                combined.getGlueTerm().assumptions = new HashSet<>();
-                combined.getGlueTerm().assumptions.addAll(arg.getGlueTerm().assumptions);
-                combined.getGlueTerm().assumptions.addAll(func.getGlueTerm().assumptions);
-                combined.getGlueTerm().assumptions.removeAll(func.getGlueTerm().discharges);
-
-                return combined;
-            }
-        }
-
-        // The discharges are somehow incompatible, return null.
-        return null;
+        * Func or arg contain assumptions. Combine the terms and their sets of assumptions.
+        * If func has discharges, they are a subset of the argument's assumptions (see above).
+        * For the new premise, all assumptions from arg are copied, except the ones that were
+        * discharged in func.
+        * func: (b[a] -o c); arg: {a,(x -o y)} ==> c with assumption {(x -o y)}
+        * */
+        Premise combined = combineDisjointID(f, funcGlue, arg);
+        if (combined == null)
+            throw new ProverException("Meaning side does not match structure of glue side");
+        /* create new set of assumptions which can be modified independently from
+        the sets of assumptions of arg and func and add all assumptions to it*/
+        Set<Premise> assumptions = new LinkedHashSet<>();
+        assumptions.addAll(arg.getAssumptions());
+        assumptions.addAll(f.getAssumptions());
+        if (hasDischarges)
+            assumptions.removeAll(f.getDischarges());
+        combined.setAssumptions(assumptions);
+        return combined;
     }
 
 
@@ -328,30 +988,33 @@ public class LLProver {
     * If so return the simplified term (the RHS of func) with combined ID sets and
     * apply the meaning side of the argument to that of the functor and beta-reduce.
      * @param func the functor to be applied
+     * @param funcGlue the glue side of the functor with its variables instantiated for arg
      * @param arg the argument that the functor is applied to
      * @return the combined premise with the unified ID set
      *
     * */
-    private Premise combineDisjointID(Premise func, Premise arg) throws ProverException {
-        HashSet<Integer> combined_IDs = new HashSet<>();
-        if (((LLFormula) func.getGlueTerm()).getLhs().checkEquivalence(arg.getGlueTerm())
-                && Collections.disjoint(func.getPremiseIDs(),arg.getPremiseIDs())){
-            combined_IDs.addAll(func.getPremiseIDs());
-            combined_IDs.addAll(arg.getPremiseIDs());
-
-            // Apply and beta-reduce meaning side
-            //FuncApp applied = new FuncApp(func.getSemTerm(),arg.getSemTerm());
-            SemanticRepresentation reducedSem;
-            if (getSettings().isBetaReduce())
-                reducedSem = new FuncApp(func.getSemTerm(),arg.getSemTerm()).betaReduce();
-            else
-                reducedSem = new FuncApp(func.getSemTerm(),arg.getSemTerm());
+    private Premise combineDisjointID(Premise func, LLTerm funcGlue, Premise arg) throws ProverException {
+        if (func.getPremiseIDs().disjoint(arg.getPremiseIDs())
+                && ((LLFormula) funcGlue).getLhs().checkEquivalence(arg.getGlueTerm())){
+            IDSet combined_IDs = func.getPremiseIDs().union(arg.getPremiseIDs());
 
-            if (((LLFormula) func.getGlueTerm()).getRhs() instanceof  LLAtom) {
-                return new Premise(combined_IDs, reducedSem,
-                        new LLAtom((LLAtom) ((LLFormula) func.getGlueTerm()).getRhs()));
-            }
-            return new Premise(combined_IDs, reducedSem, ((LLFormula) func.getGlueTerm()).getRhs());
+            /*
+            Apply and beta-reduce meaning side. Glue terms are immutable, so only the meaning side of
+            the functor is copied, and only now that the premises are known to combine.
+            In lazy mode the meaning side is left empty; it is built from the derivation history
+            once the premise turns out to be part of a solution.
+            */
+            //FuncApp applied = new FuncApp(func.getSemTerm(),arg.getSemTerm());
+            SemanticRepresentation reducedSem = null;
+            if (!getSettings().isLazySemantics() && !counting)
+                reducedSem = applySemantics(func.getSemTerm().clone(),arg.getSemTerm(),getSettings().isBetaReduce());
+
+            Premise combined = new Premise(combined_IDs, reducedSem, ((LLFormula) funcGlue).getRhs());
+            // the discharges of the RHS of func move up one level
+            List<Set<Premise>> dc = func.getSpineDischarges();
+            if (dc.size() > 1)
+                combined.setSpineDischarges(dc.subList(1, dc.size()));
+            return combined;
         }
         return null;
     }
@@ -378,7 +1041,7 @@ public class LLProver {
 
 
             if (f.getLhs() instanceof LLFormula) {
-                return convertNested(p);
+                return compilationCache == null ? convertNested(p) : convertCached(p);
             }
             else {
                 return p;
@@ -388,6 +1051,38 @@ public class LLProver {
     }
 
 
+    /*
+    Looks up the compilation of p in the cache; if there is none, compiles p with convertNested()
+    and stores the result with the assumptions and variables it created
+    */
+    private Premise convertCached(Premise p) throws ProverException {
+        Premise compiled = compilationCache.instantiate(p, currSeq, skeletons);
+        if (compiled != null)
+            return compiled;
+        int extracted = skeletons.size();
+        compiledVariables = new ArrayList<>();
+        compiledAssumptionVariables = new ArrayList<>();
+        try {
+            compiled = convertNested(p);
+            compilationCache.store(p, compiled, new ArrayList<>(skeletons.subList(extracted, skeletons.size())),
+                    compiledVariables, compiledAssumptionVariables);
+            return compiled;
+        } finally {
+            compiledVariables = null;
+            compiledAssumptionVariables = null;
+        }
+    }
+
+    private SemAtom newVariable(boolean assumption) {
+        SemAtom var = CompilationCache.newVariable(currSeq.getVariableHandler(), assumption);
+        if (compiledVariables != null) {
+            compiledVariables.add(var);
+            compiledAssumptionVariables.add(assumption);
+        }
+        return var;
+    }
+
+
     /**
     * This method does the actual compilation process. It adds created "assumptions" as additional
      * premises to the skeletons and returns the compilated premise. The algorithm is based on Hepple(1996)
@@ -430,16 +1125,21 @@ public class LLProver {
                     throw new ProverException("Meaning side does not match structure of glue side");
 
 
-                SemAtom assumpVar = new SemAtom(VAR, LexVariableHandler.returnNewVar(SemVarE),new SemType(TEMP));
+                SemAtom assumpVar = newVariable(true);
                 assumptionVars.addLast(assumpVar);
 
                 Premise assumption = convertNested(new Premise(currSeq.getNewID(), ((LLFormula) f.getLhs()).getLhs()));
-                assumption.getGlueTerm().assumptions.add(assumption.getGlueTerm());
+                assumption.setAssumptions(Collections.singleton(assumption));
                 // TODO add distinction between skel and mod here?
                 skeletons.add(assumption);
-                Premise dependency = new Premise(p.getPremiseIDs(), p.getSemTerm(), new LLFormula(((LLFormula) f.getLhs()).getRhs(),
-                        f.getRhs(), f.isPolarity(), f.getVariable()));
-                dependency.getGlueTerm().discharges.add(assumption.getGlueTerm());
+                Premise dependency = new Premise(p.getPremiseIDs(), p.getSemTerm(),
+                        LLTermFactory.formula(((LLFormula) f.getLhs()).getRhs(), f.getRhs(), f.getVariable()));
+                List<Set<Premise>> dc = new ArrayList<>();
+                dc.add(Collections.singleton(assumption));
+                List<Set<Premise>> pdc = p.getSpineDischarges();
+                if (pdc.size() > 1)
+                    dc.addAll(pdc.subList(1, pdc.size()));
+                dependency.setSpineDischarges(dc);
                 dependency = convertNested(dependency);
 
                 return dependency;
@@ -450,11 +1150,17 @@ public class LLProver {
             term is NOT a modifier type
             */
             else if (f.isNested() && !f.getRhs().isModifier()) {
-                Premise temp = new Premise(p.getPremiseIDs(),p.getSemTerm(),new LLFormula((LLFormula) f.getRhs()));
+                Premise temp = new Premise(p.getPremiseIDs(),p.getSemTerm(),f.getRhs());
+                List<Set<Premise>> pdc = p.getSpineDischarges();
+                if (pdc.size() > 1)
+                    temp.setSpineDischarges(pdc.subList(1, pdc.size()));
                 temp = convertNested(temp);
-                LLTerm newGlue = new LLFormula(f.getLhs(),temp.getGlueTerm(),temp.getGlueTerm().isPolarity());
-                newGlue.discharges.addAll(p.getGlueTerm().discharges);
+                LLTerm newGlue = LLTermFactory.formula(f.getLhs(),temp.getGlueTerm());
+                List<Set<Premise>> dc = new ArrayList<>();
+                dc.add(p.getDischarges());
+                dc.addAll(temp.getSpineDischarges());
                 p = new Premise(p.getPremiseIDs(),temp.getSemTerm(),newGlue);
+                p.setSpineDischarges(dc);
                 //p = convertNested(reorder(p));
             }
             /*
@@ -463,7 +1169,7 @@ public class LLProver {
             term as argument to the current meaning term and wrap everything in a new lambda
             term binding the newly created variable.
             */
-            SemAtom binderVar = new SemAtom(VAR,LexVariableHandler.returnNewVar(SemVar),T);
+            SemAtom binderVar = newVariable(false);
             SemFunction newArg = new SemFunction(assumptionVars.removeLast(),binderVar);
             //((SemFunction) p.getSemTerm()).setArgument(newArg);
             p.setSemTerm(new SemFunction(binderVar,new FuncApp(p.getSemTerm(),newArg)));
@@ -507,12 +1213,11 @@ public class LLProver {
                         throw new ProverException("Semantic term does not match structure of glue side.");
                     else
                         sem = swapLambdas(sem);
-                    LLFormula newinner = new LLFormula(oldLeft, oldInnerRight, oldInnerRight.isPolarity(),((LLFormula) ((LLFormula) p.getGlueTerm()).getRhs()).getVariable());
-                    newinner.discharges.addAll(glue.discharges);
-                    glue = new LLFormula(oldInnerLeft,newinner, p.getGlueTerm().isPolarity(), newinner.getVariable());
+                    LLFormula newinner = LLTermFactory.formula(oldLeft, oldInnerRight, ((LLFormula) ((LLFormula) p.getGlueTerm()).getRhs()).getVariable());
+                    glue = LLTermFactory.formula(oldInnerLeft,newinner, newinner.getVariable());
                 }
                 Premise inner = reorder(new Premise(p.getPremiseIDs(),sem.getFuncBody(),glue.getRhs()));
-                glue = new LLFormula(glue.getLhs(),inner.getGlueTerm(),glue.isPolarity(),glue.getVariable());
+                glue = LLTermFactory.formula(glue.getLhs(),inner.getGlueTerm(),glue.getVariable());
                 sem = new SemFunction(sem.getBinder(),(SemanticExpression) inner.getSemTerm());
 
                 return new Premise(p.getPremiseIDs(),sem,glue);
@@ -538,31 +1243,22 @@ public class LLProver {
             throw new ProverException("Semantic term does not match structure of glue side.");
     }
 
-    /**
-     * Checks for duplicate bindings and returns false if a variable is assigned more than one value
-     * @param in A set of variable bindings
-     * @return true if no duplicate bindings were detected, false if otherwise
-     */
-    private static boolean checkDuplicateBinding(LinkedHashSet<Equality> in) {
-        List<Equality> eqs = new ArrayList<>(in);
-
-        // no multiple assignments possible
-        if (eqs.size() <= 1)
-            return false;
 
-        for (int i = 0; i < eqs.size(); i++)
-        {
-            for (int j = 0; j <eqs.size(); j++)
-            {
-                if (eqs.get(i).getVariable().getName().equals(eqs.get(j).getVariable().getName())
-                        && eqs.get(i).getVariable().getType().equals(eqs.get(j).getVariable().getType())
-                        && !(eqs.get(i).getConstant().getName().equals(eqs.get(j).getConstant().getName())))
-                {
-                    return true;
-                }
-            }
+    /*
+    A skeleton in the priority queue of the agenda. Skeletons are ordered by the rank of their category
+    (with the SCC strategy, otherwise 0), then by priority; the ticket orders skeletons that are equal in both.
+    */
+    private static final class AgendaItem {
+        private final Premise premise;
+        private final int rank;
+        private final int priority;
+        private final long ticket;
+
+        private AgendaItem(Premise premise, int rank, int priority, long ticket) {
+            this.premise = premise;
+            this.rank = rank;
+            this.priority = priority;
+            this.ticket = ticket;
         }
-        return false;
     }
-
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.Premise;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork/join task that tries a list of combinations (pairs of a current premise and a database
+ * entry) in parallel. The task only computes the combined premises; it does not change the
+ * state of the prover. Results and exceptions are stored by position, so the prover can add
+ * them to its chart in the same order as the sequential loop.
+ */
+class ParallelCombination extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    // Below this number of pairs the combinations are tried in the current thread
+    private static final int THRESHOLD = 4;
+
+    private final LLProver prover;
+    private final List<Premise> currents;
+    private final List<Premise> dbPremises;
+    private final Premise[] results;
+    private final Exception[] exceptions;
+    private final int from;
+    private final int to;
+
+    ParallelCombination(LLProver prover, List<Premise> currents, List<Premise> dbPremises) {
+        this(prover, currents, dbPremises, new Premise[currents.size()], new Exception[currents.size()],
+                0, currents.size());
+    }
+
+    private ParallelCombination(LLProver prover, List<Premise> currents, List<Premise> dbPremises,
+                                Premise[] results, Exception[] exceptions, int from, int to) {
+        this.prover = prover;
+        this.currents = currents;
+        this.dbPremises = dbPremises;
+        this.results = results;
+        this.exceptions = exceptions;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                try {
+                    results[i] = prover.combineWithDatabase(currents.get(i), dbPremises.get(i));
+                } catch (ProverException | VariableBindingException e) {
+                    exceptions[i] = e;
+                }
+            }
+        }
+        else {
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParallelCombination(prover, currents, dbPremises, results, exceptions, from, middle),
+                    new ParallelCombination(prover, currents, dbPremises, results, exceptions, middle, to));
+        }
+    }
+
+    Premise getResult(int i) {
+        return results[i];
+    }
+
+    Exception getException(int i) {
+        return exceptions[i];
+    }
+}
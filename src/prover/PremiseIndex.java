@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.LLFormula;
+import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.Premise;
+
+import java.util.*;
+
+/**
+ * An index over the premises of the prover's database (and of its modifiers). Every premise is stored under its
+ * glue category (as a possible argument) and, if its glue side is a formula, under the category
+ * of its antecedent (as a possible functor). This way a new premise only has to be checked
+ * against those database entries that could actually combine with it.
+ * Categories are canonical glue terms, so they are compared by reference. Categories containing
+ * LL variables can match several categories, so they are stored in a separate bucket per sort,
+ * i.e. the shape of the category with its types but without names (see LLTerm.getSort()).
+ */
+public class PremiseIndex {
+
+    // Functors whose antecedent contains no variables, by antecedent category
+    private final HashMap<LLTerm,Bucket> functorsByAntecedent = new HashMap<>();
+    // Functors whose antecedent contains variables, by antecedent sort
+    private final HashMap<String,Bucket> openFunctorsBySort = new HashMap<>();
+    // All functors by antecedent sort
+    private final HashMap<String,Bucket> functorsBySort = new HashMap<>();
+
+    // Premises without variables, by category
+    private final HashMap<LLTerm,Bucket> argumentsByCategory = new HashMap<>();
+    // Premises containing variables, by sort
+    private final HashMap<String,Bucket> openArgumentsBySort = new HashMap<>();
+    // All premises by sort
+    private final HashMap<String,Bucket> argumentsBySort = new HashMap<>();
+
+    // Number of premises added so far; the sequence number of the next premise
+    private int size;
+
+
+    public void add(Premise p) {
+        int seq = size++;
+
+        LLTerm glue = p.getGlueTerm();
+        String sort = glue.getSort();
+        if (glue.isGround())
+            bucket(argumentsByCategory, glue).add(p, seq);
+        else
+            bucket(openArgumentsBySort, sort).add(p, seq);
+        bucket(argumentsBySort, sort).add(p, seq);
+
+        if (glue instanceof LLFormula) {
+            LLTerm antecedent = ((LLFormula) glue).getLhs();
+            String antecedentSort = antecedent.getSort();
+            if (antecedent.isGround())
+                bucket(functorsByAntecedent, antecedent).add(p, seq);
+            else
+                bucket(openFunctorsBySort, antecedentSort).add(p, seq);
+            bucket(functorsBySort, antecedentSort).add(p, seq);
+        }
+    }
+
+    /**
+     * Returns all indexed premises that might combine with p, either as a functor applied to p
+     * or as an argument of p. The candidates are returned in database order, i.e. the most recently
+     * added premise comes first, and each candidate is returned only once.
+     * The buckets are kept in insertion order, so the candidates of a single bucket are returned as a
+     * reversed view of it, and those of several buckets are merged by their sequence numbers. Premises
+     * added later do not appear in the list.
+     * @param p the premise that is to be combined with the database
+     * @return the candidates for combination
+     */
+    public List<Premise> candidates(Premise p) {
+        Bucket[] buckets = new Bucket[4];
+        int n = 0;
+
+        // database entries that can take p as their argument
+        LLTerm glue = p.getGlueTerm();
+        if (glue.isGround()) {
+            n = addBucket(buckets, n, functorsByAntecedent.get(glue));
+            n = addBucket(buckets, n, openFunctorsBySort.get(glue.getSort()));
+        }
+        else
+            n = addBucket(buckets, n, functorsBySort.get(glue.getSort()));
+
+        // database entries that p can take as its argument
+        if (glue instanceof LLFormula) {
+            LLTerm antecedent = ((LLFormula) glue).getLhs();
+            if (antecedent.isGround()) {
+                n = addBucket(buckets, n, argumentsByCategory.get(antecedent));
+                n = addBucket(buckets, n, openArgumentsBySort.get(antecedent.getSort()));
+            }
+            else
+                n = addBucket(buckets, n, argumentsBySort.get(antecedent.getSort()));
+        }
+
+        if (n == 0)
+            return Collections.emptyList();
+        if (n == 1)
+            return buckets[0].reversed();
+
+        // merge the buckets from their ends, i.e. by descending sequence numbers
+        int[] next = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            next[i] = buckets[i].size - 1;
+            total += buckets[i].size;
+        }
+        List<Premise> result = new ArrayList<>(total);
+        int last = -1;
+        while (true) {
+            int max = -1;
+            for (int i = 0; i < n; i++) {
+                if (next[i] >= 0 && (max < 0 || buckets[i].sequence[next[i]] > buckets[max].sequence[next[max]]))
+                    max = i;
+            }
+            if (max < 0)
+                return result;
+            int seq = buckets[max].sequence[next[max]];
+            // premises that were found both as functor and as argument are only returned once
+            if (seq != last)
+                result.add(buckets[max].premises[next[max]]);
+            last = seq;
+            next[max]--;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        functorsByAntecedent.clear();
+        openFunctorsBySort.clear();
+        functorsBySort.clear();
+        argumentsByCategory.clear();
+        openArgumentsBySort.clear();
+        argumentsBySort.clear();
+        size = 0;
+    }
+
+    private static <K> Bucket bucket(HashMap<K,Bucket> map, K key) {
+        return map.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    private static int addBucket(Bucket[] buckets, int n, Bucket bucket) {
+        if (bucket != null && bucket.size > 0)
+            buckets[n++] = bucket;
+        return n;
+    }
+
+
+    // Premises in insertion order with their sequence numbers in the index
+    private static final class Bucket {
+        private Premise[] premises = new Premise[4];
+        private int[] sequence = new int[4];
+        private int size;
+
+        private void add(Premise p, int seq) {
+            if (size == premises.length) {
+                premises = Arrays.copyOf(premises, size * 2);
+                sequence = Arrays.copyOf(sequence, size * 2);
+            }
+            premises[size] = p;
+            sequence[size++] = seq;
+        }
+
+        // The premises added so far, the most recent one first
+        private List<Premise> reversed() {
+            Premise[] items = premises;
+            int n = size;
+            return new AbstractList<Premise>() {
+                @Override
+                public Premise get(int index) {
+                    if (index < 0 || index >= n)
+                        throw new IndexOutOfBoundsException("Index: " + index);
+                    return items[n - 1 - index];
+                }
+
+                @Override
+                public int size() {
+                    return n;
+                }
+            };
+        }
+    }
+}
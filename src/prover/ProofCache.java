@@ -0,0 +1,419 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.*;
+
+import java.util.*;
+
+/**
+ * A cache of proofs that can be shared by several provers, e.g. for all sentences of a corpus.
+ * Sequents are looked up by their canonical form: the premises are sorted by the shape of their
+ * glue terms and the way they share atoms, and all atoms are renamed in the order of their first
+ * occurrence, so two sequents that only differ in the names of their atoms and the order of their
+ * premises have the same key (see canonicalize()).
+ * For every sequent the cache stores the shape of its derivation forest, i.e. which premises were
+ * combined in which order, but no meaning sides. On a hit the prover rebuilds the forest from the
+ * compiled premises of the new sequent without searching, and the readings are built from it
+ * as usual (see DerivationForest).
+ * The cache holds at most a given number of sequents and evicts the least recently used one first.
+ */
+public class ProofCache {
+
+    // Maximum number of orders of tied premises that are compared by canonicalize()
+    private static final int MAX_TIE_ORDERS = 720;
+
+    private final int capacity;
+    private final LinkedHashMap<String,Entry> entries;
+    private long hits;
+    private long misses;
+
+
+    public ProofCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity of a proof cache must be at least 1");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String,Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,Entry> eldest) {
+                return size() > ProofCache.this.capacity;
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+
+    synchronized Entry lookup(CanonicalSequent seq) {
+        Entry entry = entries.get(seq.key);
+        if (entry == null)
+            misses++;
+        else
+            hits++;
+        return entry;
+    }
+
+    /*
+    Stores the forest of a deduction. compiled contains for every premise of the sequent (in its
+    original order) the premises it was compiled into. Returns false if the forest contains a
+    derivation the cache cannot represent; nothing is stored then.
+    */
+    synchronized boolean store(CanonicalSequent seq, List<List<Premise>> compiled, List<Premise> roots) {
+        Map<Premise,Shape> leaves = new IdentityHashMap<>();
+        for (int i = 0; i < seq.order.length; i++) {
+            List<Premise> fromSource = compiled.get(seq.order[i]);
+            for (int k = 0; k < fromSource.size(); k++)
+                leaves.put(fromSource.get(k), new Shape(fromSource.get(k).getGlueTerm(), i, k));
+        }
+        Map<Premise,Shape> shapes = new IdentityHashMap<>(leaves);
+        List<Shape> rootShapes = new ArrayList<>();
+        for (Premise root : roots) {
+            Shape shape = shapeOf(root, shapes);
+            if (shape == null)
+                return false;
+            rootShapes.add(shape);
+        }
+        entries.put(seq.key, new Entry(rootShapes, seq.atoms));
+        return true;
+    }
+
+    private static Shape shapeOf(Premise node, Map<Premise,Shape> shapes) {
+        Shape shape = shapes.get(node);
+        if (shape != null)
+            return shape;
+        shape = new Shape(node.getGlueTerm(), -1, -1);
+        shapes.put(node, shape);
+        List<Premise> derivations = new ArrayList<>();
+        derivations.add(node);
+        derivations.addAll(node.getAlternatives());
+        for (Premise derivation : derivations) {
+            if (!(derivation.getFunc() instanceof Premise && derivation.getArg() instanceof Premise))
+                return null;
+            Shape func = shapeOf((Premise) derivation.getFunc(), shapes);
+            Shape arg = shapeOf((Premise) derivation.getArg(), shapes);
+            if (func == null || arg == null)
+                return null;
+            shape.funcs.add(func);
+            shape.args.add(arg);
+        }
+        return shape;
+    }
+
+    /*
+    Rebuilds the solutions of a cached deduction from the compiled premises of a new sequent with
+    the same canonical form. The derived premises have no meaning sides; these are built by the
+    DerivationForest. Returns null if the compiled premises do not match the cached forest.
+    */
+    static List<Premise> rebuild(Entry entry, CanonicalSequent seq, List<List<Premise>> compiled) {
+        Map<LLAtom,LLAtom> renaming = new HashMap<>();
+        for (int i = 0; i < entry.atoms.size(); i++)
+            renaming.put(entry.atoms.get(i), seq.atoms.get(i));
+        Map<Shape,Premise> premises = new IdentityHashMap<>();
+        List<Premise> roots = new ArrayList<>();
+        for (Shape shape : entry.roots) {
+            Premise root = rebuild(shape, seq, compiled, renaming, premises);
+            if (root == null)
+                return null;
+            roots.add(root);
+        }
+        return roots;
+    }
+
+    private static Premise rebuild(Shape shape, CanonicalSequent seq, List<List<Premise>> compiled,
+                                   Map<LLAtom,LLAtom> renaming, Map<Shape,Premise> premises) {
+        Premise node = premises.get(shape);
+        if (node != null)
+            return node;
+        if (shape.source >= 0) {
+            List<Premise> fromSource = compiled.get(seq.order[shape.source]);
+            if (shape.ordinal >= fromSource.size())
+                return null;
+            node = fromSource.get(shape.ordinal);
+            premises.put(shape, node);
+            return node;
+        }
+        LLTerm glue = rename(shape.glue, renaming);
+        for (int i = 0; i < shape.funcs.size(); i++) {
+            Premise func = rebuild(shape.funcs.get(i), seq, compiled, renaming, premises);
+            Premise arg = rebuild(shape.args.get(i), seq, compiled, renaming, premises);
+            if (func == null || arg == null)
+                return null;
+            Premise derivation = new Premise(func.getPremiseIDs().union(arg.getPremiseIDs()), null, glue);
+            derivation.setHistory(func, arg);
+            if (node == null)
+                node = derivation;
+            else
+                node.addAlternative(derivation);
+        }
+        premises.put(shape, node);
+        return node;
+    }
+
+    private static LLTerm rename(LLTerm term, Map<LLAtom,LLAtom> renaming) {
+        if (term instanceof LLFormula) {
+            LLFormula f = (LLFormula) term;
+            LLAtom var = f.getVariable() == null ? null : (LLAtom) rename(f.getVariable(), renaming);
+            return LLTermFactory.formula(rename(f.getLhs(), renaming), f.getOperator(),
+                    rename(f.getRhs(), renaming), var);
+        }
+        LLAtom renamed = renaming.get(term);
+        return renamed == null ? term : renamed;
+    }
+
+
+    /**
+     * Computes the canonical form of a sequent. This has to be done before the premises of the
+     * sequent are compiled.
+     * The premises are ordered by their shapes, refined by the way they share atoms (see
+     * refineClasses()), so that the order does not depend on the order of the premises in the
+     * sequent. If premises are still tied after that, the smallest key of all orders of the tied
+     * premises is used; for more than MAX_TIE_ORDERS orders the tied premises keep their order in the
+     * sequent, so such a sequent may miss a cache entry of the same sequent in another order.
+     */
+    static CanonicalSequent canonicalize(Sequent seq) {
+        List<Premise> lhs = seq.getLhs();
+        int[] classes = refineClasses(lhs);
+        Integer[] sorted = new Integer[lhs.size()];
+        for (int i = 0; i < sorted.length; i++)
+            sorted[i] = i;
+        // the sort is stable, so premises of the same class keep their order
+        Arrays.sort(sorted, Comparator.comparingInt(i -> classes[i]));
+        int[] order = new int[sorted.length];
+        long orders = 1;
+        for (int i = 0, tied = 1; i < sorted.length; i++) {
+            order[i] = sorted[i];
+            tied = i > 0 && classes[sorted[i]] == classes[sorted[i - 1]] ? tied + 1 : 1;
+            orders = Math.min(orders * tied, MAX_TIE_ORDERS + 1);
+        }
+        CanonicalSequent best = canonicalSequent(lhs, order);
+        if (orders > 1 && orders <= MAX_TIE_ORDERS)
+            best = permuteTies(lhs, classes, order, 0, best);
+        return best;
+    }
+
+    /*
+    Classes of the premises of a sequent that do not depend on their order: first the premises are
+    classified by the shapes of their glue terms, then repeatedly by their class together with the
+    classes and term positions of the premises that share each of their constant atoms, until the
+    number of classes does not grow any more. E.g. two quantifiers of the same shape are told apart
+    by the antecedents of the verb they bind. Variables are bound within a premise, so they are not
+    shared. Classes are numbered in the order of their descriptions.
+    */
+    private static int[] refineClasses(List<Premise> lhs) {
+        int n = lhs.size();
+        String[] descriptions = new String[n];
+        List<List<LLAtom>> leaves = new ArrayList<>();
+        Map<LLAtom,List<int[]>> occurrences = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            appendTerm(lhs.get(i).getGlueTerm(), null, null, sb);
+            descriptions[i] = sb.toString();
+            List<LLAtom> atoms = new ArrayList<>();
+            collectLeaves(lhs.get(i).getGlueTerm(), atoms);
+            leaves.add(atoms);
+            for (int k = 0; k < atoms.size(); k++) {
+                if (atoms.get(k).getLLtype() == LLAtom.LLType.CONST)
+                    occurrences.computeIfAbsent(atoms.get(k), a -> new ArrayList<>()).add(new int[]{i, k});
+            }
+        }
+        int[] classes = number(descriptions);
+        for (int count = countClasses(classes); ; ) {
+            for (int i = 0; i < n; i++) {
+                StringBuilder sb = new StringBuilder().append(classes[i]);
+                for (int k = 0; k < leaves.get(i).size(); k++) {
+                    List<int[]> shared = occurrences.get(leaves.get(i).get(k));
+                    if (shared == null)
+                        continue;
+                    List<String> others = new ArrayList<>();
+                    for (int[] o : shared) {
+                        if (o[0] != i || o[1] != k)
+                            others.add(classes[o[0]] + "@" + o[1]);
+                    }
+                    Collections.sort(others);
+                    sb.append('|').append(k).append(others);
+                }
+                descriptions[i] = sb.toString();
+            }
+            int[] refined = number(descriptions);
+            int refinedCount = countClasses(refined);
+            if (refinedCount == count)
+                return classes;
+            classes = refined;
+            count = refinedCount;
+        }
+    }
+
+    // Numbers the distinct descriptions in their sorted order
+    private static int[] number(String[] descriptions) {
+        List<String> distinct = new ArrayList<>(new TreeSet<>(Arrays.asList(descriptions)));
+        int[] numbers = new int[descriptions.length];
+        for (int i = 0; i < descriptions.length; i++)
+            numbers[i] = Collections.binarySearch(distinct, descriptions[i]);
+        return numbers;
+    }
+
+    private static int countClasses(int[] classes) {
+        return (int) Arrays.stream(classes).distinct().count();
+    }
+
+    // Collects the atoms of a term in the order in which appendTerm() visits them
+    private static void collectLeaves(LLTerm term, List<LLAtom> leaves) {
+        if (term instanceof LLFormula) {
+            LLFormula f = (LLFormula) term;
+            if (f.getVariable() != null)
+                leaves.add(f.getVariable());
+            collectLeaves(f.getLhs(), leaves);
+            collectLeaves(f.getRhs(), leaves);
+        }
+        else
+            leaves.add((LLAtom) term);
+    }
+
+    /*
+    Tries all orders of the premises of the same class from position i on and returns the canonical
+    sequent with the smallest key
+    */
+    private static CanonicalSequent permuteTies(List<Premise> lhs, int[] classes, int[] order, int i,
+                                                CanonicalSequent best) {
+        if (i == order.length) {
+            CanonicalSequent candidate = canonicalSequent(lhs, order);
+            return candidate.key.compareTo(best.key) < 0 ? candidate : best;
+        }
+        int end = i + 1;
+        while (end < order.length && classes[order[end]] == classes[order[i]])
+            end++;
+        if (end == i + 1)
+            return permuteTies(lhs, classes, order, end, best);
+        // every premise of the group once at position i, then the rest of the group
+        for (int j = i; j < end; j++) {
+            swap(order, i, j);
+            best = permuteTies(lhs, classes, order, i + 1, best);
+            swap(order, i, j);
+        }
+        return best;
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+
+    // Builds the key of a sequent with its premises in the given order
+    private static CanonicalSequent canonicalSequent(List<Premise> lhs, int[] order) {
+        Map<LLAtom,Integer> numbers = new HashMap<>();
+        List<LLAtom> atoms = new ArrayList<>();
+        StringBuilder key = new StringBuilder();
+        for (int position : order) {
+            appendTerm(lhs.get(position).getGlueTerm(), numbers, atoms, key);
+            key.append(';');
+        }
+        return new CanonicalSequent(key.toString(), order.clone(), atoms);
+    }
+
+    /*
+    Appends a term with its atoms replaced by their kind, type and (if numbers is not null)
+    the number of their first occurrence
+    */
+    private static void appendTerm(LLTerm term, Map<LLAtom,Integer> numbers, List<LLAtom> atoms, StringBuilder sb) {
+        if (term instanceof LLFormula) {
+            LLFormula f = (LLFormula) term;
+            sb.append('(');
+            if (f.getVariable() != null) {
+                appendTerm(f.getVariable(), numbers, atoms, sb);
+                sb.append('.');
+            }
+            appendTerm(f.getLhs(), numbers, atoms, sb);
+            sb.append(" -o ");
+            appendTerm(f.getRhs(), numbers, atoms, sb);
+            sb.append(')');
+        }
+        else {
+            LLAtom atom = (LLAtom) term;
+            sb.append(atom.getLLtype() == LLAtom.LLType.VAR ? 'v' : 'c').append(atom.getType());
+            if (numbers != null) {
+                Integer n = numbers.get(atom);
+                if (n == null) {
+                    n = atoms.size();
+                    numbers.put(atom, n);
+                    atoms.add(atom);
+                }
+                sb.append(n);
+            }
+        }
+    }
+
+
+    /*
+    The canonical form of a sequent: its key, the position in the sequent of every premise in
+    canonical order and the atom of the sequent for every canonical atom number
+    */
+    static final class CanonicalSequent {
+        private final String key;
+        private final int[] order;
+        private final List<LLAtom> atoms;
+
+        private CanonicalSequent(String key, int[] order, List<LLAtom> atoms) {
+            this.key = key;
+            this.order = order;
+            this.atoms = atoms;
+        }
+    }
+
+    static final class Entry {
+        private final List<Shape> roots;
+        // the atoms of the sequent the entry was made from, by their canonical number
+        private final List<LLAtom> atoms;
+
+        private Entry(List<Shape> roots, List<LLAtom> atoms) {
+            this.roots = roots;
+            this.atoms = atoms;
+        }
+    }
+
+    /*
+    A node of a cached forest. Leaves are identified by the canonical position of the premise they
+    were compiled from and their number among the premises compiled from it. Inner nodes have one
+    functor and argument for each of their derivations.
+    */
+    private static final class Shape {
+        private final LLTerm glue;
+        private final int source;
+        private final int ordinal;
+        private final List<Shape> funcs = new ArrayList<>();
+        private final List<Shape> args = new ArrayList<>();
+
+        private Shape(LLTerm glue, int source, int ordinal) {
+            this.glue = glue;
+            this.source = source;
+            this.ordinal = ordinal;
+        }
+    }
+}
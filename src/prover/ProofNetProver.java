@@ -0,0 +1,408 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.*;
+import main.Settings;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * An experimental prover engine that searches for proof structures instead of building a chart. The premises are compiled
+ * like in LLProver. In the implicational fragment every derivation is then a tree in which a premise
+ * is applied to some of its antecedents, and each antecedent is linked to the consequent of another
+ * premise after that premise has been applied to some of its own antecedents. The search builds
+ * these links top-down from a root premise, backtracking over the premises that can fill each link. A proof structure is only completed if:
+ * - every premise is used exactly once (linear logic is resource sensitive)
+ * - the linked glue terms unify (variables are bound for each premise separately)
+ * - the argument of an antecedent with discharges contains the discharged assumptions, and no other
+ *   argument contains discharges
+ * The last condition is the correctness criterion of the proof net; it is checked as soon as the
+ * subtree of a link is complete, and a link is not made if one of its assumptions is already used
+ * outside of it. For every complete proof structure the premises are combined along its links with
+ * LLProver.combinePremises(), so the readings are the same as those of the chart.
+ * This is a plain tree search over the links, not a proof-net linking algorithm: it does not share
+ * subderivations between proof structures and uses no connectivity criterion, so it usually tries
+ * many more links than the chart tries combinations. The time limit, the attempt limit (counted in
+ * links) and cancellation apply as in LLProver; the strategy, parallel and chart size settings only
+ * apply to the chart.
+ */
+public class ProofNetProver implements Prover {
+    private final Settings settings;
+    // Compiles the premises and combines them along the proof structures
+    private final LLProver chart;
+
+    // The compiled premises of the current sequent and the position of each in the order of linking
+    private List<Premise> premises = Collections.emptyList();
+    private final Map<Premise,Integer> positions = new IdentityHashMap<>();
+    private int[] linkIndex;
+    // The linked premises in the order in which they were linked; a subtree is a segment of this list
+    private final List<Premise> linked = new ArrayList<>();
+    // Premises applied to 0..n of their antecedents, by the sort of the remaining glue term
+    private final Map<String,List<End>> endsBySort = new HashMap<>();
+    // Open links and discharge checks; the last one is done first
+    private final List<Task> agenda = new ArrayList<>();
+    private int openLinks;
+    private final Substitution bindings = new Substitution();
+    private Node root;
+    private final List<Premise> solutions = new ArrayList<>();
+    // Number of links tried during the last deduction
+    private int linkAttempts;
+    // Budget of the current deduction, see outOfBudget()
+    private long deadline;
+    private boolean budgetExhausted;
+    private volatile Future<?> cancellation;
+
+
+    public ProofNetProver(Settings settings) {
+        this.settings = settings;
+        this.chart = new LLProver(settings);
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public CompilationCache getCompilationCache() {
+        return chart.getCompilationCache();
+    }
+
+    // Sets the cache of compiled premises, see LLProver.setCompilationCache()
+    public void setCompilationCache(CompilationCache compilationCache) {
+        chart.setCompilationCache(compilationCache);
+    }
+
+    public int getCombinationAttempts() {
+        return linkAttempts;
+    }
+
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    /**
+     * Does a deduction like deduce() in a thread of the common ForkJoinPool.
+     * @see #deduceAsync(Sequent, Executor)
+     */
+    public CompletableFuture<List<Premise>> deduceAsync(Sequent seq) {
+        return deduceAsync(seq, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Does a deduction like deduce() with the given executor, see LLProver.deduceAsync(). Cancelling
+     * the returned future stops the search after the current link.
+     * @return a future of the list of all valid deductions, or of those found until a budget was used up
+     */
+    public CompletableFuture<List<Premise>> deduceAsync(Sequent seq, Executor executor) {
+        CompletableFuture<List<Premise>> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (future.isCancelled())
+                return;
+            cancellation = future;
+            try {
+                future.complete(deduce(seq));
+            } catch (ProverException | VariableBindingException | RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                cancellation = null;
+            }
+        });
+        return future;
+    }
+
+    public DerivationForest deduceForest(Sequent seq) throws ProverException,VariableBindingException {
+        linkAttempts = 0;
+        budgetExhausted = false;
+        deadline = settings.getTimeLimit() > 0 ? System.nanoTime() + settings.getTimeLimit() * 1000000 : 0;
+        solutions.clear();
+        positions.clear();
+        endsBySort.clear();
+        linked.clear();
+        agenda.clear();
+        openLinks = 0;
+        premises = chart.compileSequent(seq);
+        if (premises == null)
+            return new DerivationForest(Collections.emptyList(), settings.isBetaReduce());
+
+        linkIndex = new int[premises.size()];
+        for (Premise p : premises) {
+            positions.put(p, positions.size());
+            LLTerm glue = p.getGlueTerm();
+            for (int applied = 0; ; applied++) {
+                endsBySort.computeIfAbsent(glue.getSort(), k -> new ArrayList<>()).add(new End(p, applied, glue));
+                if (!(glue instanceof LLFormula))
+                    break;
+                glue = ((LLFormula) glue).getRhs();
+            }
+        }
+
+        /*
+        The root is a premise applied to at least one antecedent; the chart does not return premises of
+        the sequent. If the sequent has a goal category (see ResourceBalance), the consequent of the root
+        is the goal. Otherwise a variable consequent is bound to each possible goal in turn, i.e. to
+        each atomic constant of its type that is the consequent of a premise.
+        */
+        LLAtom goal = new ResourceBalance(premises).getGoal();
+        Set<LLTerm> goals = new LinkedHashSet<>();
+        for (List<End> ends : endsBySort.values()) {
+            for (End end : ends) {
+                if (end.glue instanceof LLAtom && end.glue.isGround() && (goal == null || end.glue == goal))
+                    goals.add(end.glue);
+            }
+        }
+        for (Premise p : premises) {
+            LLTerm glue = p.getGlueTerm();
+            for (int applied = 1; glue instanceof LLFormula; applied++) {
+                glue = ((LLFormula) glue).getRhs();
+                if (goal != null && !(glue instanceof LLAtom))
+                    continue;
+                if (goal != null || glue instanceof LLAtom && !glue.isGround()) {
+                    for (LLTerm category : goals) {
+                        if (outOfBudget())
+                            break;
+                        bindings.clear();
+                        if (bindings.unify(glue, category))
+                            link(root = new Node(p, applied, bindings), null);
+                    }
+                }
+                else {
+                    bindings.clear();
+                    link(root = new Node(p, applied, bindings), null);
+                }
+            }
+        }
+        System.out.println("Found " + solutions.size() + " proof structure(s) after " + linkAttempts + " links.");
+        return new DerivationForest(solutions, settings.isBetaReduce());
+    }
+
+
+    /**
+     * Counts the readings of a given sequent. The readings are not counted by enumerating proof
+     * structures, which is exponential in their number, but by the chart (see LLProver.countReadings()),
+     * which packs them and returns the same number.
+     * @return the exact number of readings that deduce() would return
+     */
+    public BigInteger countReadings(Sequent seq) throws ProverException,VariableBindingException {
+        return chart.countReadings(seq);
+    }
+
+
+    private void search() throws ProverException {
+        if (agenda.isEmpty()) {
+            if (linked.size() == premises.size())
+                addSolution();
+            return;
+        }
+        // every open link takes at least one more premise
+        if (premises.size() - linked.size() < openLinks)
+            return;
+        Task task = agenda.remove(agenda.size() - 1);
+        if (task instanceof Check) {
+            if (((Check) task).holds())
+                search();
+        }
+        else
+            fill((Link) task);
+        agenda.add(task);
+    }
+
+    /*
+    Tries every premise that is not linked yet as the argument of an antecedent
+    */
+    private void fill(Link link) throws ProverException {
+        openLinks--;
+        for (End end : endsBySort.getOrDefault(link.glue.getSort(), Collections.emptyList())) {
+            if (linkIndex[positions.get(end.premise)] > 0)
+                continue;
+            if (outOfBudget())
+                break;
+            linkAttempts++;
+            List<Set<Premise>> spine = end.premise.getSpineDischarges();
+            if (link.discharges.isEmpty() ? end.applied < spine.size() && !spine.get(end.applied).isEmpty()
+                    : usedOutside(link.discharges))
+                continue;
+            bindings.clear();
+            if (!bindings.unify(link.glue, end.glue) || bindings.hasConflict())
+                continue;
+            Node node = new Node(end.premise, end.applied, bindings);
+            link.node.args[link.antecedent] = node;
+            link(node, link);
+        }
+        openLinks++;
+    }
+
+    // Links a premise and searches on with its antecedents as open links
+    private void link(Node node, Link parent) throws ProverException {
+        int position = positions.get(node.premise);
+        linked.add(node.premise);
+        linkIndex[position] = linked.size();
+        int mark = agenda.size();
+        if (parent != null && !parent.discharges.isEmpty())
+            agenda.add(new Check(parent.discharges, linked.size()));
+        List<Set<Premise>> spine = node.premise.getSpineDischarges();
+        for (int i = node.glues.length - 1; i >= 0; i--)
+            agenda.add(new Link(node, i, node.glues[i], i < spine.size() ? spine.get(i) : Collections.emptySet()));
+        openLinks += node.glues.length;
+
+        search();
+
+        openLinks -= node.glues.length;
+        while (agenda.size() > mark)
+            agenda.remove(agenda.size() - 1);
+        linkIndex[position] = 0;
+        linked.remove(linked.size() - 1);
+    }
+
+    /*
+    Checks the budgets of the deduction (see Settings) and whether it has been cancelled, like
+    LLProver.outOfBudget(). The links count as combination attempts; there is no chart to limit.
+    */
+    private boolean outOfBudget() {
+        if (budgetExhausted)
+            return true;
+        Future<?> c = cancellation;
+        if (c != null && c.isCancelled())
+            budgetExhausted = true;
+        else if (deadline != 0 && System.nanoTime() - deadline > 0)
+            budgetExhausted = true;
+        else if (settings.getMaxAttempts() > 0 && linkAttempts >= settings.getMaxAttempts())
+            budgetExhausted = true;
+        if (budgetExhausted)
+            System.out.println("Deduction stopped: budget used up or deduction cancelled.");
+        return budgetExhausted;
+    }
+
+    // Returns true if one of the assumptions is linked already, i.e. outside of the current subtree
+    private boolean usedOutside(Set<Premise> assumptions) {
+        for (Premise a : assumptions) {
+            Integer position = positions.get(a);
+            if (position == null || linkIndex[position] > 0)
+                return true;
+        }
+        return false;
+    }
+
+    private void addSolution() throws ProverException {
+        Premise solution = combine(root);
+        if (solution != null)
+            solutions.add(solution);
+    }
+
+    // Combines the premises of a proof structure; returns null if the chart would not combine them
+    private Premise combine(Node node) throws ProverException {
+        Premise func = node.premise;
+        for (Node arg : node.args) {
+            Premise argument = combine(arg);
+            if (argument == null)
+                return null;
+            Premise combined;
+            try {
+                combined = chart.combinePremises(func, argument);
+            } catch (VariableBindingException e) {
+                return null;
+            }
+            if (combined == null)
+                return null;
+            // in lazy mode the meaning side is built from the history (see DerivationForest)
+            combined.setHistory(func, argument);
+            func = combined;
+        }
+        return func;
+    }
+
+    // Replaces the bound variables of a term by their constants
+    private static LLTerm instantiate(LLTerm term, Substitution bindings) {
+        if (term.isGround())
+            return term;
+        if (term instanceof LLFormula) {
+            LLFormula f = (LLFormula) term;
+            LLAtom var = f.getVariable() == null || bindings.lookup(f.getVariable()) != null ? null : f.getVariable();
+            return LLTermFactory.formula(instantiate(f.getLhs(), bindings), f.getOperator(),
+                    instantiate(f.getRhs(), bindings), var);
+        }
+        LLAtom constant = bindings.lookup((LLAtom) term);
+        return constant == null ? term : constant;
+    }
+
+
+    // A premise applied to its first n antecedents, with the glue term that remains
+    private static final class End {
+        private final Premise premise;
+        private final int applied;
+        private final LLTerm glue;
+
+        private End(Premise premise, int applied, LLTerm glue) {
+            this.premise = premise;
+            this.applied = applied;
+            this.glue = glue;
+        }
+    }
+
+    // A linked premise with its instantiated antecedents and the nodes linked to them
+    private static final class Node {
+        private final Premise premise;
+        private final LLTerm[] glues;
+        private final Node[] args;
+
+        private Node(Premise premise, int applied, Substitution bindings) {
+            this.premise = premise;
+            this.glues = new LLTerm[applied];
+            this.args = new Node[applied];
+            LLTerm glue = premise.getGlueTerm();
+            for (int i = 0; i < applied; i++) {
+                glues[i] = instantiate(((LLFormula) glue).getLhs(), bindings);
+                glue = ((LLFormula) glue).getRhs();
+            }
+        }
+    }
+
+    private static abstract class Task {
+    }
+
+    // An antecedent of a linked premise that has to be linked to the consequent of another premise
+    private static final class Link extends Task {
+        private final Node node;
+        private final int antecedent;
+        private final LLTerm glue;
+        private final Set<Premise> discharges;
+
+        private Link(Node node, int antecedent, LLTerm glue, Set<Premise> discharges) {
+            this.node = node;
+            this.antecedent = antecedent;
+            this.glue = glue;
+            this.discharges = discharges;
+        }
+    }
+
+    // Checks that a complete subtree contains the assumptions discharged by its link
+    private final class Check extends Task {
+        private final Set<Premise> discharges;
+        // the position in the order of linking from which on the premises belong to the subtree
+        private final int from;
+
+        private Check(Set<Premise> discharges, int from) {
+            this.discharges = discharges;
+            this.from = from;
+        }
+
+        private boolean holds() {
+            for (Premise a : discharges) {
+                if (linkIndex[positions.get(a)] < from)
+                    return false;
+            }
+            return true;
+        }
+    }
+}
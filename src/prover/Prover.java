@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.Premise;
+import glueSemantics.linearLogic.Sequent;
+import main.Settings;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The common interface of the prover engines. Both engines compile the premises of a sequent in the
+ * same way (see LLProver.convert()) and return the same readings; they only differ in how they search
+ * for derivations. The engine is chosen in the Settings.
+ * @see LLProver
+ * @see ProofNetProver
+ */
+public interface Prover {
+
+    // Returns a prover with the engine chosen in the settings
+    static Prover create(Settings settings) {
+        if (settings.getEngine() == Settings.ProverEngine.PROOF_NET)
+            return new ProofNetProver(settings);
+        return new LLProver(settings);
+    }
+
+    Settings getSettings();
+
+    /**
+     * Does a deduction of a given sequent and returns one premise for every reading
+     * @throws ProverException If the proof is invalid
+     * @throws VariableBindingException If an invalid variable binding is detected
+     */
+    default List<Premise> deduce(Sequent seq) throws ProverException,VariableBindingException {
+        /*
+        Solutions are chart items which may have packed alternative derivations,
+        so unpack them into one premise per reading. In lazy mode this is where
+        the meaning sides are built.
+        */
+        DerivationForest forest = deduceForest(seq);
+        long n = forest.countReadings();
+        List<Premise> readings = new ArrayList<>();
+        for (long i = 0; i < n; i++)
+            readings.add(forest.getReading(i));
+        return readings;
+    }
+
+    /**
+     * Does a deduction of a given sequent like deduce(), but returns the readings as a forest
+     * @see DerivationForest
+     */
+    DerivationForest deduceForest(Sequent seq) throws ProverException,VariableBindingException;
+
+    /**
+     * Counts the readings of a given sequent without building their meaning sides
+     * @return the exact number of readings that deduce() would return
+     */
+    BigInteger countReadings(Sequent seq) throws ProverException,VariableBindingException;
+
+    CompilationCache getCompilationCache();
+
+    // Sets the cache of compiled premises, see LLProver.setCompilationCache()
+    void setCompilationCache(CompilationCache compilationCache);
+
+    // The number of steps of the search in the last deduction, i.e. combination attempts or links
+    int getCombinationAttempts();
+
+    /**
+     * Returns true if the last deduction was stopped because a budget was used up or because it
+     * was cancelled; its solutions are then only partial.
+     */
+    boolean isBudgetExhausted();
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.*;
+
+import java.util.*;
+
+/**
+ * A necessary condition for the provability of a sequent: linear logic is resource sensitive, so every
+ * atom that is produced by a premise has to be consumed by another one, except for the goal. For
+ * every atom the occurrences in positive positions (a premise itself and the consequents of its
+ * formulas) are counted as +1 and those in negative positions (antecedents) as -1. In a provable
+ * sequent the sums of the atoms are those of the goal category: if it is an atom, all atoms sum up
+ * to 0 except for the goal, which sums up to +1. The goal may also be a formula, e.g. (g_e -o g_t)
+ * for a noun and an adjective; the category of a derivation is always one of the consequents along
+ * the spine of a premise, so the sums have to match those of one of these consequents.
+ * The sums do not change when premises are compiled (see LLProver.convert()), so the check can be
+ * done on the compiled premises before the search starts. Summing up takes time linear in their size,
+ * comparing the sums with the possible goal categories time quadratic in it.
+ * LL variables can stand for any constant of their type, so if the variables of a type do not sum
+ * up to those of the goal the atoms of that type are not checked.
+ */
+public class ResourceBalance {
+
+    // The sum of the occurrences of every constant, in the order of first occurrence
+    private final Map<LLAtom,Integer> constants = new LinkedHashMap<>();
+    // The sum of the occurrences of all variables, by type
+    private final Map<LLTerm.Type,Integer> variables = new EnumMap<>(LLTerm.Type.class);
+    // The formulas along the spines of the premises, i.e. the possible goal categories that are not atoms
+    private final Set<LLTerm> goalFormulas = new LinkedHashSet<>();
+
+
+    public ResourceBalance(Collection<Premise> premises) {
+        for (Premise p : premises) {
+            count(p.getGlueTerm(), 1, constants, variables);
+            for (LLTerm glue = p.getGlueTerm(); glue instanceof LLFormula; glue = ((LLFormula) glue).getRhs())
+                goalFormulas.add(glue);
+        }
+    }
+
+    private static void count(LLTerm term, int polarity, Map<LLAtom,Integer> constants,
+                              Map<LLTerm.Type,Integer> variables) {
+        if (term instanceof LLFormula) {
+            count(((LLFormula) term).getLhs(), -polarity, constants, variables);
+            count(((LLFormula) term).getRhs(), polarity, constants, variables);
+        }
+        else if (term.isGround())
+            constants.merge((LLAtom) term, polarity, Integer::sum);
+        else
+            variables.merge(term.getType(), polarity, Integer::sum);
+    }
+
+    /*
+    Returns true if the sums of the premises are those of a goal formula. Like in getUnbalancedAtoms(),
+    the atoms of a type are only compared if the variables of that type sum up to those of the goal.
+    */
+    private boolean balancesWith(LLTerm goal) {
+        Map<LLAtom,Integer> goalConstants = new HashMap<>();
+        Map<LLTerm.Type,Integer> goalVariables = new EnumMap<>(LLTerm.Type.class);
+        count(goal, 1, goalConstants, goalVariables);
+        Set<LLAtom> atoms = new HashSet<>(constants.keySet());
+        atoms.addAll(goalConstants.keySet());
+        for (LLAtom atom : atoms) {
+            LLTerm.Type type = atom.getType();
+            if (!variables.getOrDefault(type, 0).equals(goalVariables.getOrDefault(type, 0)))
+                continue;
+            if (!constants.getOrDefault(atom, 0).equals(goalConstants.getOrDefault(atom, 0)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the sequent might be provable, i.e. if no unbalanced atoms were found
+     */
+    public boolean isBalanced() {
+        return getUnbalancedAtoms().isEmpty();
+    }
+
+    /**
+     * Returns the atoms that make the sequent unprovable with their sums. If exactly one atom sums
+     * up to +1 it is the goal and balanced; if several do, all of them are returned. If the sums
+     * are those of one of the formulas along the spine of a premise, that formula may be the goal
+     * and no atoms are returned.
+     */
+    public Map<LLAtom,Integer> getUnbalancedAtoms() {
+        Map<LLAtom,Integer> unbalanced = new LinkedHashMap<>();
+        List<LLAtom> goals = new ArrayList<>();
+        for (Map.Entry<LLAtom,Integer> atom : constants.entrySet()) {
+            int sum = atom.getValue();
+            if (variables.getOrDefault(atom.getKey().getType(), 0) != 0 || sum == 0)
+                continue;
+            if (sum == 1)
+                goals.add(atom.getKey());
+            else
+                unbalanced.put(atom.getKey(), sum);
+        }
+        if (goals.size() > 1)
+            for (LLAtom goal : goals)
+                unbalanced.put(goal, 1);
+        if (!unbalanced.isEmpty()) {
+            for (LLTerm goal : goalFormulas) {
+                if (balancesWith(goal))
+                    return Collections.emptyMap();
+            }
+        }
+        return unbalanced;
+    }
+
+    /**
+     * Returns the goal category of a balanced sequent if it is an atom, i.e. the only atom that sums
+     * up to +1 while all others sum up to 0, or null if there is none (e.g. if the goal is a formula)
+     * or if the variables of some type do not sum up to 0
+     */
+    public LLAtom getGoal() {
+        LLAtom goal = null;
+        for (int sum : variables.values()) {
+            if (sum != 0)
+                return null;
+        }
+        for (Map.Entry<LLAtom,Integer> atom : constants.entrySet()) {
+            if (atom.getValue() == 1 && goal == null)
+                goal = atom.getKey();
+            else if (atom.getValue() != 0)
+                return null;
+        }
+        return goal;
+    }
+
+    // Lists the unbalanced atoms with their types and sums, e.g. "g_e -1, f_t +1"
+    public String describeUnbalancedAtoms() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<LLAtom,Integer> atom : getUnbalancedAtoms().entrySet()) {
+            if (sb.length() > 0)
+                sb.append(", ");
+            sb.append(atom.getKey().getName()).append('_').append(atom.getKey().getType().toString().toLowerCase())
+                    .append(atom.getValue() > 0 ? " +" : " ").append(atom.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package prover;
+
+import glueSemantics.linearLogic.LLAtom;
+import glueSemantics.linearLogic.LLFormula;
+import glueSemantics.linearLogic.LLTerm;
+
+import java.util.Arrays;
+
+/**
+ * Bindings of LL variables to constants, as produced by unifying two glue terms.
+ * Glue terms are immutable and shared, so unification neither changes nor copies them; it only
+ * records the bindings on a trail. The bindings are applied lazily: lookup() returns the constant
+ * of a variable and instantiate() builds the instantiated formula only when it is needed.
+ * Bindings can be undone back to a mark, so the same substitution can be used to match a
+ * quantified formula against any number of arguments.
+ * The bindings are stored by the number of the variable (see LLAtom.getIndex()), so looking up a
+ * binding and detecting a conflicting binding take constant time. The numbers of collected
+ * variables are reused, so every binding also records its variable. This keeps a bound variable
+ * and its number alive, and a lookup only returns the binding for the variable that made it.
+ */
+public class Substitution {
+
+    // the constant bound to each variable, by the number of the variable
+    private LLAtom[] bindings = new LLAtom[16];
+    // the variable of each binding, by its number
+    private LLAtom[] variables = new LLAtom[16];
+    // the numbers of the bound variables, in the order in which they were bound
+    private int[] trail = new int[8];
+    private int size;
+    /*
+    position on the trail of the entry that records the first conflict, i.e. the first time a variable
+    was bound to a second constant, or -1. The entry holds no binding; it is only there so that the
+    conflict is undone together with the bindings made after it (see undo()).
+    */
+    private int conflict = -1;
+
+
+    /**
+     * Unifies two glue terms and adds the resulting bindings. A variable unifies with a constant
+     * of its type, constants unify iff they are the same atom and formulas unify if their
+     * antecedents and consequents do. If the terms do not unify, the substitution is left unchanged.
+     * @return true if the terms unify
+     */
+    public boolean unify(LLTerm t1, LLTerm t2) {
+        int mark = mark();
+        if (match(t1, t2))
+            return true;
+        undo(mark);
+        return false;
+    }
+
+    private boolean match(LLTerm t1, LLTerm t2) {
+        if (t1 instanceof LLFormula) {
+            return t2 instanceof LLFormula
+                    && match(((LLFormula) t1).getLhs(), ((LLFormula) t2).getLhs())
+                    && match(((LLFormula) t1).getRhs(), ((LLFormula) t2).getRhs());
+        }
+        if (!(t2 instanceof LLAtom))
+            return false;
+        LLAtom a1 = (LLAtom) t1;
+        LLAtom a2 = (LLAtom) t2;
+        if (a1.getLLtype() == a2.getLLtype())
+            // canonical constants are equal iff they are the same atom; two variables do not unify
+            return a1.getLLtype() == LLAtom.LLType.CONST && a1 == a2;
+        if (a1.getType() != a2.getType())
+            return false;
+        if (a1.getLLtype() == LLAtom.LLType.VAR)
+            bind(a1, a2);
+        else
+            bind(a2, a1);
+        return true;
+    }
+
+    private void bind(LLAtom variable, LLAtom constant) {
+        int index = variable.getIndex();
+        if (index >= bindings.length) {
+            bindings = Arrays.copyOf(bindings, Math.max(index + 1, 2 * bindings.length));
+            variables = Arrays.copyOf(variables, bindings.length);
+        }
+        LLAtom bound = variables[index] == variable ? bindings[index] : null;
+        if (bound == constant)
+            return;
+        if (size == trail.length)
+            trail = Arrays.copyOf(trail, 2 * size);
+        if (bound != null) {
+            if (conflict < 0) {
+                conflict = size;
+                trail[size++] = -1;
+            }
+            return;
+        }
+        bindings[index] = constant;
+        variables[index] = variable;
+        trail[size++] = index;
+    }
+
+    /**
+     * Returns true if a variable had to be bound to two different constants. Such a substitution
+     * cannot lead to a valid proof.
+     */
+    public boolean hasConflict() {
+        return conflict >= 0;
+    }
+
+    /**
+     * Returns the constant that a variable is bound to, or null if it is not bound
+     */
+    public LLAtom lookup(LLAtom variable) {
+        int index = variable.getIndex();
+        return index >= 0 && index < bindings.length && variables[index] == variable ? bindings[index] : null;
+    }
+
+    /**
+     * Instantiates the variable bound by the quantifier of a formula with its constant, if it is bound.
+     * @return the instantiated formula, or f itself
+     */
+    public LLTerm instantiate(LLFormula f) {
+        if (f.getVariable() == null)
+            return f;
+        LLAtom constant = lookup(f.getVariable());
+        return constant == null ? f : f.instantiate(constant);
+    }
+
+    // The number of bindings
+    public int size() {
+        return conflict < 0 ? size : size - 1;
+    }
+
+    // Returns a mark of the current bindings that undo() can return to
+    public int mark() {
+        return size;
+    }
+
+    // Removes all bindings that were made after the mark was taken
+    public void undo(int mark) {
+        while (size > mark) {
+            int index = trail[--size];
+            if (index < 0) {
+                conflict = -1;
+                continue;
+            }
+            bindings[index] = null;
+            variables[index] = null;
+        }
+    }
+
+    public void clear() {
+        undo(0);
+    }
+}
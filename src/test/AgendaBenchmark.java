@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package test;
+
+import glueSemantics.linearLogic.Sequent;
+import main.Settings;
+import prover.AgendaHeuristic;
+import prover.LLProver;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Compares the agenda heuristics on the example files in the test directory. For each file and
+ * heuristic the median time to the first reading (with deduceStream()) and the median time of a
+ * complete deduction are reported, together with the combination attempts of the prover for each.
+ * Usage: AgendaBenchmark [test directory] [runs]
+ */
+public class AgendaBenchmark {
+    private static final String TEST_DIR = "C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\";
+    private static final String[] FILES = {"intrans_quant.txt", "trans_quant.txt", "intrans_quant_adj.txt",
+            "trans_quant_prolog.txt", "every_black_dog_barks_webXLE.pl", "john_cries_webXLE.pl"};
+
+    public static void main(String[] args) throws Exception {
+        String dir = args.length > 0 ? args[0] : TEST_DIR;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Map<String,AgendaHeuristic> heuristics = new LinkedHashMap<>();
+        heuristics.put("stack", null);
+        heuristics.put("span", AgendaHeuristic.LARGEST_SPAN);
+        heuristics.put("assumpt", AgendaHeuristic.FEWEST_ASSUMPTIONS);
+        heuristics.put("span+ass", AgendaHeuristic.SPAN_THEN_ASSUMPTIONS);
+
+        System.out.println(String.format("%-32s %-8s %10s %10s %10s %10s", "file", "agenda", "first ms", "attempts",
+                "all ms", "attempts"));
+        for (String file : FILES) {
+            for (Map.Entry<String,AgendaHeuristic> heuristic : heuristics.entrySet()) {
+                long[] firstTimes = new long[runs];
+                long[] allTimes = new long[runs];
+                int firstAttempts = 0;
+                int allAttempts = 0;
+                // the first runs only warm up the JVM
+                for (int i = -runs; i < runs; i++) {
+                    LLProver prover = new LLProver(new Settings());
+                    prover.setAgendaHeuristic(heuristic.getValue());
+                    Sequent seq = ProverBenchmark.loadSequent(Paths.get(dir, file));
+                    long start = System.nanoTime();
+                    firstReadingSilently(prover, seq);
+                    if (i >= 0)
+                        firstTimes[i] = System.nanoTime() - start;
+                    firstAttempts = prover.getCombinationAttempts();
+
+                    seq = ProverBenchmark.loadSequent(Paths.get(dir, file));
+                    start = System.nanoTime();
+                    ProverBenchmark.deduceSilently(prover, seq);
+                    if (i >= 0)
+                        allTimes[i] = System.nanoTime() - start;
+                    allAttempts = prover.getCombinationAttempts();
+                }
+                Arrays.sort(firstTimes);
+                Arrays.sort(allTimes);
+                System.out.println(String.format("%-32s %-8s %10.3f %10d %10.3f %10d", file, heuristic.getKey(),
+                        firstTimes[runs / 2] / 1e6, firstAttempts, allTimes[runs / 2] / 1e6, allAttempts));
+            }
+        }
+    }
+
+    // Searches until the first reading is found, see ProverBenchmark.deduceSilently()
+    private static void firstReadingSilently(LLProver prover, Sequent seq) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {}
+        }));
+        try {
+            prover.deduceStream(seq).findFirst();
+        }
+        finally {
+            System.setOut(out);
+        }
+    }
+}
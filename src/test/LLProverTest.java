@@ -10,20 +10,38 @@
 package test;
 
 import glueSemantics.lexicon.LexicalEntry;
+import glueSemantics.linearLogic.LLAtom;
+import glueSemantics.linearLogic.LLTerm;
+import glueSemantics.linearLogic.LLTermFactory;
 import glueSemantics.linearLogic.Premise;
 import glueSemantics.linearLogic.Sequent;
 import glueSemantics.parser.ParserInputException;
 import glueSemantics.parser.GlueParser;
 import main.Settings;
 import org.junit.jupiter.api.Test;
+import prover.AgendaHeuristic;
+import prover.CompilationCache;
+import prover.DerivationForest;
+import prover.DominanceGraph;
+import prover.ItemScorer;
 import prover.LLProver;
+import prover.ProofCache;
+import prover.ProofNetProver;
+import prover.Prover;
 import prover.ProverException;
+import prover.Substitution;
 import prover.VariableBindingException;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,7 +85,7 @@ class LLProverTest {
         assertEquals(2,transPlSolutions.size());
         System.out.println("Found the following deduction(s): ");
         for (Premise sol : transPlSolutions) {
-            System.out.println(sol.toString());
+            System.out.println(sol.toPrologString());
         }
 
     }
@@ -118,6 +136,540 @@ class LLProverTest {
         }
     }
 
+    @Test
+    void testDuplicateMerging() {
+        try {
+            LLProver lp = new LLProver(new Settings());
+
+            // Both scope readings end up in the same chart item, they must still be returned separately
+            System.out.println("\nTesting merging of equivalent derivations:");
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            List<Premise> transSolutions = lp.deduce(transQuant);
+            assertEquals(2,transSolutions.size());
+            assertNotEquals(transSolutions.get(0).getSemTerm().toString(),transSolutions.get(1).getSemTerm().toString());
+            assertTrue(lp.getMergedDuplicates() > 0);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testParallel() {
+        try {
+            System.out.println("\nTesting parallel deduction:");
+            Settings settings = new Settings();
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> sequential = new HashSet<>();
+            for (Premise sol : new LLProver(settings).deduce(transQuant))
+                sequential.add(sol.getSemTerm().toString());
+
+            settings.setParallel(true);
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> parallel = new HashSet<>();
+            for (Premise sol : new LLProver(settings).deduce(transQuant))
+                parallel.add(sol.getSemTerm().toString());
+
+            assertEquals(2,parallel.size());
+            assertEquals(sequential,parallel);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testLazySemantics() {
+        try {
+            System.out.println("\nTesting glue-only search with lazy semantics:");
+            Settings settings = new Settings();
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> eager = new HashSet<>();
+            for (Premise sol : new LLProver(settings).deduce(transQuant))
+                eager.add(sol.getSemTerm().toString());
+
+            settings.setLazySemantics(true);
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> lazy = new HashSet<>();
+            for (Premise sol : new LLProver(settings).deduce(transQuant))
+                lazy.add(sol.getSemTerm().toString());
+
+            assertEquals(2,lazy.size());
+            assertEquals(eager,lazy);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testDerivationForest() {
+        try {
+            LLProver lp = new LLProver(new Settings());
+
+            // The two scope readings are packed into a single solution
+            System.out.println("\nTesting packed derivation forest:");
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            DerivationForest forest = lp.deduceForest(transQuant);
+            assertEquals(1,forest.getRoots().size());
+            assertEquals(2,forest.getDerivations(forest.getRoots().get(0)).size());
+            assertEquals(2,forest.countReadings());
+
+            Set<String> readings = new HashSet<>();
+            for (Premise reading : forest)
+                readings.add(reading.getSemTerm().toString());
+            assertEquals(2,readings.size());
+            assertTrue(readings.contains(forest.sample(new Random(0)).getSemTerm().toString()));
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testDominanceGraph() {
+        try {
+            System.out.println("\nTesting the underspecified representation:");
+            Settings settings = new Settings();
+            settings.setLazySemantics(true);
+            LLProver lp = new LLProver(settings);
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            DominanceGraph graph = new DominanceGraph(lp.deduceForest(transQuant));
+            System.out.println(graph);
+
+            // The scopes of both quantifiers are holes, all other antecedents are filled by a single fragment
+            assertEquals(9,graph.getFragments().size());
+            assertEquals(2,graph.countHoles());
+            assertEquals(BigInteger.valueOf(2),graph.countReadings());
+
+            // The readings are built on demand and are those of deduce()
+            List<String> expected = new ArrayList<>();
+            for (Premise sol : new LLProver(new Settings()).deduce(
+                    loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt")))
+                expected.add(sol.getSemTerm().toString());
+            List<String> readings = new ArrayList<>();
+            for (Premise reading : graph)
+                readings.add(reading.getSemTerm().toString());
+            assertEquals(expected,readings);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testStreaming() {
+        try {
+            System.out.println("\nTesting streaming of solutions:");
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            LLProver lp = new LLProver(new Settings());
+            Set<String> all = new HashSet<>();
+            for (Premise sol : lp.deduce(transQuant))
+                all.add(sol.getSemTerm().toString());
+            int allAttempts = lp.getCombinationAttempts();
+
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            List<Premise> first = lp.deduce(transQuant, 1);
+            assertEquals(1,first.size());
+            assertTrue(all.contains(first.get(0).getSemTerm().toString()));
+            assertTrue(lp.getCombinationAttempts() < allAttempts);
+
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> streamed = new HashSet<>();
+            lp.deduceStream(transQuant).forEach(sol -> streamed.add(sol.getSemTerm().toString()));
+            assertEquals(all,streamed);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testCountReadings() {
+        try {
+            System.out.println("\nTesting the reading count:");
+            LLProver lp = new LLProver(new Settings());
+            for (String file : Arrays.asList("intrans_quant.txt", "trans_quant.txt", "intrans_quant_adj.txt")) {
+                int readings = lp.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\" + file)).size();
+                assertEquals(BigInteger.valueOf(readings),
+                        lp.countReadings(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\" + file)));
+            }
+
+            // The proof net engine counts the readings that it finds
+            ProofNetProver pn = new ProofNetProver(new Settings());
+            for (String file : Arrays.asList("intrans_quant.txt", "trans_quant.txt", "intrans_quant_adj.txt", "ditrans_quant.txt")) {
+                int readings = pn.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\" + file)).size();
+                assertEquals(BigInteger.valueOf(readings),
+                        pn.countReadings(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\" + file)));
+            }
+
+            // The exact count of a forest is its count with arbitrary precision
+            DerivationForest forest = lp.deduceForest(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt"));
+            assertEquals(BigInteger.valueOf(forest.countReadings()),forest.countReadingsExact());
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testBeamSearch() {
+        try {
+            System.out.println("\nTesting the beam search:");
+            Settings settings = new Settings();
+            settings.setBeamWidth(1);
+            LLProver lp = new LLProver(settings);
+            lp.setItemScorer(ItemScorer.SURFACE_SCOPE);
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            List<Premise> best = lp.deduce(transQuant);
+            // Only the surface reading survives: the subject takes wide scope
+            assertEquals(1,best.size());
+            assertTrue(best.get(0).getSemTerm().toString().startsWith("/P./Q./z.every"));
+            assertEquals(0.0,lp.getScore(best.get(0)));
+
+            // With a wider beam all readings are found, best first
+            settings.setBeamWidth(2);
+            List<Premise> readings = lp.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt"));
+            assertEquals(2,readings.size());
+            assertEquals(best.get(0).getSemTerm().toString(),readings.get(0).getSemTerm().toString());
+            assertTrue(lp.getScore(readings.get(0)) > lp.getScore(readings.get(1)));
+
+            // The inverse scope order with three quantifiers: every beam returns the best readings of the wider beams
+            lp.setItemScorer((func, arg) -> -ItemScorer.SURFACE_SCOPE.score(func, arg));
+            double[] expected = {3, 2, 2, 1, 1, 0};
+            for (int k = 1; k <= expected.length; k++) {
+                settings.setBeamWidth(k);
+                readings = lp.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\ditrans_quant.txt"));
+                assertEquals(k,readings.size());
+                for (int i = 0; i < k; i++)
+                    assertEquals(expected[i],lp.getScore(readings.get(i)));
+            }
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testCombinabilityMatrix() {
+        try {
+            System.out.println("\nTesting the combinability matrix:");
+            LLProver lp = new LLProver(new Settings());
+            List<Premise> readings = lp.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt"));
+            assertEquals(2,readings.size());
+            // Pairs that share premises are never tried, e.g. a quantifier and an item containing it
+            assertTrue(lp.getFilteredAttempts() > 0);
+            // without the matrix the prover makes 18 attempts
+            assertTrue(lp.getCombinationAttempts() < 18);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testBudgets() {
+        try {
+            System.out.println("\nTesting deduction budgets:");
+            Settings settings = new Settings();
+            settings.setMaxAttempts(5);
+            LLProver lp = new LLProver(settings);
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            List<Premise> partial = lp.deduce(transQuant);
+            assertTrue(lp.isBudgetExhausted());
+            assertTrue(partial.size() < 2);
+
+            // The proof net engine counts links against the same budget
+            ProofNetProver pn = new ProofNetProver(settings);
+            partial = pn.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt"));
+            assertTrue(pn.isBudgetExhausted());
+            assertTrue(pn.getCombinationAttempts() <= 5);
+            assertTrue(partial.size() < 2);
+
+            // Without budget the asynchronous deduction finds all readings
+            lp = new LLProver(new Settings());
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            CompletableFuture<List<Premise>> future = lp.deduceAsync(transQuant);
+            assertEquals(2,future.get().size());
+            assertFalse(lp.isBudgetExhausted());
+        }
+        catch (VariableBindingException | ProverException | InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testConcurrentProvers() {
+        try {
+            System.out.println("\nTesting provers on parallel threads:");
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> expected = new HashSet<>();
+            for (Premise sol : new LLProver(new Settings()).deduce(transQuant))
+                expected.add(sol.getSemTerm().toString());
+
+            List<Sequent> sequents = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                sequents.add(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt"));
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<List<Premise>>> futures = new ArrayList<>();
+            for (Sequent seq : sequents)
+                futures.add(executor.submit(() -> new LLProver(new Settings()).deduce(seq)));
+            for (Future<List<Premise>> future : futures) {
+                Set<String> readings = new HashSet<>();
+                for (Premise sol : future.get())
+                    readings.add(sol.getSemTerm().toString());
+                assertEquals(expected,readings);
+            }
+            executor.shutdown();
+        }
+        catch (VariableBindingException | ProverException | InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testProofCache() {
+        try {
+            System.out.println("\nTesting the proof cache:");
+            ProofCache cache = new ProofCache(10);
+            LLProver lp = new LLProver(new Settings());
+            lp.setProofCache(cache);
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> searched = new HashSet<>();
+            for (Premise sol : lp.deduce(transQuant))
+                searched.add(sol.getSemTerm().toString());
+
+            // The second deduction of the same sequent is rebuilt from the cache without searching
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Set<String> cached = new HashSet<>();
+            for (Premise sol : lp.deduce(transQuant))
+                cached.add(sol.getSemTerm().toString());
+            assertEquals(searched,cached);
+            assertEquals(0,lp.getCombinationAttempts());
+            assertEquals(1,cache.getHits());
+            assertEquals(1,cache.getMisses());
+            assertEquals(1,cache.size());
+
+            // The order of the premises does not matter, even if several premises have the same shape
+            for (int[] swap : new int[][]{{2, 3}, {0, 1}}) {
+                // the names of the assumption variables depend on the order, so compare with a search
+                searched = new HashSet<>();
+                transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+                Collections.swap(transQuant.getLhs(),swap[0],swap[1]);
+                for (Premise sol : new LLProver(new Settings()).deduce(transQuant))
+                    searched.add(sol.getSemTerm().toString());
+                transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+                Collections.swap(transQuant.getLhs(),swap[0],swap[1]);
+                cached = new HashSet<>();
+                for (Premise sol : lp.deduce(transQuant))
+                    cached.add(sol.getSemTerm().toString());
+                assertEquals(searched,cached);
+                assertEquals(0,lp.getCombinationAttempts());
+            }
+            assertEquals(3,cache.getHits());
+            assertEquals(1,cache.size());
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testAddPremise() {
+        try {
+            System.out.println("\nTesting incremental deduction:");
+            LLProver lp = new LLProver(new Settings());
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            assertEquals(2,lp.deduce(transQuant).size());
+            int allAttempts = lp.getCombinationAttempts();
+
+            // Without the verb there is no full derivation; adding it only tries the new combinations
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Premise verb = transQuant.getLhs().remove(4);
+            assertEquals(0,lp.deduceForest(transQuant).countReadings());
+            int partialAttempts = lp.getCombinationAttempts();
+            DerivationForest forest = lp.addPremise(verb);
+            assertEquals(2,forest.countReadings());
+            assertTrue(partialAttempts + lp.getCombinationAttempts() <= allAttempts);
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testResourceBalance() {
+        try {
+            System.out.println("\nTesting the resource balance check:");
+            LLProver lp = new LLProver(new Settings());
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            assertEquals(2,lp.deduce(transQuant).size());
+            assertTrue(lp.getUnbalancedAtoms().isEmpty());
+
+            // Without the verb the arguments of both quantifiers are left over, so the prover does not search
+            transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            Premise verb = transQuant.getLhs().remove(4);
+            assertEquals(0,lp.deduce(transQuant).size());
+            assertEquals(0,lp.getCombinationAttempts());
+            assertEquals(2,lp.getUnbalancedAtoms().size());
+
+            // The verb balances the sequent again
+            assertEquals(2,lp.addPremise(verb).countReadings());
+            assertTrue(lp.getUnbalancedAtoms().isEmpty());
+
+            // The goal may be a formula, e.g. a modified noun or a verb that still lacks an argument
+            Sequent noun = new Sequent(Arrays.asList(parser.parseMeaningConstructor("/x.dog(x) : (g_e -o g_t)"),
+                    parser.parseMeaningConstructor("/P./x.black(x) & P(x) : ((g_e -o g_t) -o (g_e -o g_t))")));
+            assertEquals(1,lp.deduce(noun).size());
+            assertTrue(lp.getUnbalancedAtoms().isEmpty());
+            Sequent partial = new Sequent(Arrays.asList(parser.parseMeaningConstructor("/x./y.see(x,y) : (a_e -o (b_e -o f_t))"),
+                    parser.parseMeaningConstructor("john : a_e")));
+            assertEquals(1,lp.deduce(partial).size());
+            assertTrue(lp.getUnbalancedAtoms().isEmpty());
+        }
+        catch (VariableBindingException | ProverException | ParserInputException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testTermFactory() {
+        System.out.println("\nTesting the collection of unused terms:");
+        int before = LLTermFactory.size();
+        for (int i = 0; i < 10000; i++)
+            LLTermFactory.formula(LLTermFactory.atom("g" + i, LLTerm.Type.E, LLAtom.LLType.CONST),
+                    LLTermFactory.atom("X" + i, LLTerm.Type.T, LLAtom.LLType.VAR));
+        // the terms are not used anywhere, so they are collected and their variable numbers are reused
+        for (int i = 0; i < 10 && LLTermFactory.size() > before + 1000; i++)
+            System.gc();
+        assertTrue(LLTermFactory.size() < before + 1000);
+        assertTrue(LLTermFactory.atom("Y", LLTerm.Type.T, LLAtom.LLType.VAR).getIndex() < 1000);
+
+        // a term that is still used stays canonical
+        LLAtom g = LLTermFactory.atom("g", LLTerm.Type.E, LLAtom.LLType.CONST);
+        System.gc();
+        assertSame(g, LLTermFactory.atom("g", LLTerm.Type.E, LLAtom.LLType.CONST));
+    }
+
+    @Test
+    void testSubstitution() {
+        LLAtom x = LLTermFactory.atom("X", LLTerm.Type.T, LLAtom.LLType.VAR);
+        LLAtom f = LLTermFactory.atom("f", LLTerm.Type.T, LLAtom.LLType.CONST);
+        LLAtom g = LLTermFactory.atom("g", LLTerm.Type.T, LLAtom.LLType.CONST);
+        Substitution bindings = new Substitution();
+        assertTrue(bindings.unify(x, f));
+        int beforeConflict = bindings.mark();
+        bindings.unify(x, g);
+        assertTrue(bindings.hasConflict());
+
+        // a conflict from before a mark is kept when the bindings are undone back to the mark
+        bindings.undo(bindings.mark());
+        assertTrue(bindings.hasConflict());
+        assertEquals(f, bindings.lookup(x));
+
+        // a conflict from after a mark is undone
+        bindings.undo(beforeConflict);
+        assertFalse(bindings.hasConflict());
+        assertEquals(1, bindings.size());
+        bindings.clear();
+        assertNull(bindings.lookup(x));
+    }
+
+    @Test
+    void testCompilationCache() {
+        try {
+            System.out.println("\nTesting the compilation cache:");
+            CompilationCache cache = new CompilationCache(10);
+            LLProver lp = new LLProver(new Settings());
+            lp.setCompilationCache(null);
+            Sequent transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+            List<String> compiled = new ArrayList<>();
+            for (Premise sol : lp.deduce(transQuant))
+                compiled.add(sol.getSemTerm().toString());
+
+            // Both quantifiers are compiled once and then instantiated from the cache
+            lp.setCompilationCache(cache);
+            for (int i = 0; i < 2; i++) {
+                transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+                List<String> cached = new ArrayList<>();
+                for (Premise sol : lp.deduce(transQuant))
+                    cached.add(sol.getSemTerm().toString());
+                assertEquals(compiled,cached);
+            }
+            assertEquals(2,cache.size());
+            assertEquals(2,cache.getHits());
+
+            // A cache with room for one template evicts the compilation of the first quantifier
+            cache = new CompilationCache(1);
+            lp.setCompilationCache(cache);
+            for (int i = 0; i < 2; i++) {
+                transQuant = loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\trans_quant.txt");
+                List<String> cached = new ArrayList<>();
+                for (Premise sol : lp.deduce(transQuant))
+                    cached.add(sol.getSemTerm().toString());
+                assertEquals(compiled,cached);
+            }
+            assertEquals(1,cache.size());
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testAgendaHeuristic() {
+        try {
+            System.out.println("\nTesting the agenda heuristics:");
+            List<String> expected = new ArrayList<>();
+            for (Premise sol : new LLProver(new Settings()).deduce(
+                    loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\intrans_quant_adj.txt")))
+                expected.add(sol.getSemTerm().toString());
+            Collections.sort(expected);
+
+            // The heuristics change the order of the search, but not its result
+            for (AgendaHeuristic heuristic : Arrays.asList(AgendaHeuristic.LARGEST_SPAN, AgendaHeuristic.FEWEST_ASSUMPTIONS,
+                    AgendaHeuristic.SPAN_THEN_ASSUMPTIONS)) {
+                LLProver lp = new LLProver(new Settings());
+                lp.setAgendaHeuristic(heuristic);
+                List<String> readings = new ArrayList<>();
+                for (Premise sol : lp.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\intrans_quant_adj.txt")))
+                    readings.add(sol.getSemTerm().toString());
+                Collections.sort(readings);
+                assertEquals(expected,readings);
+            }
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    void testProofNet() {
+        try {
+            System.out.println("\nTesting the proof-net prover:");
+            Settings settings = new Settings();
+            settings.setEngine(Settings.ProverEngine.PROOF_NET);
+            for (String file : Arrays.asList("intrans_quant.txt", "trans_quant.txt", "intrans_quant_adj.txt")) {
+                List<String> expected = new ArrayList<>();
+                for (Premise sol : new LLProver(new Settings()).deduce(
+                        loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\" + file)))
+                    expected.add(sol.getSemTerm().toString());
+                Collections.sort(expected);
+
+                Prover prover = Prover.create(settings);
+                assertTrue(prover instanceof ProofNetProver);
+                List<String> readings = new ArrayList<>();
+                for (Premise sol : prover.deduce(loadAndParseTestFormulas("C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\" + file)))
+                    readings.add(sol.getSemTerm().toString());
+                Collections.sort(readings);
+                assertEquals(expected,readings);
+            }
+        }
+        catch (VariableBindingException | ProverException e) {
+            e.printStackTrace();
+        }
+    }
+
     @Test
     void testDependency() {
 
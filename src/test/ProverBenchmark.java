@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Moritz Messmer and Mark-Matthias Zymla.
+ * This file is part of the Glue Semantics Workbench
+ * The Glue Semantics Workbench is free software and distributed under the conditions of the GNU General Public License,
+ * without any warranty.
+ * You should have received a copy of the GNU General Public License along with the source code.
+ * If not, please visit http://www.gnu.org/licenses/ for more information.
+ */
+
+package test;
+
+import glueSemantics.lexicon.LexicalEntry;
+import glueSemantics.linearLogic.Premise;
+import glueSemantics.linearLogic.Sequent;
+import glueSemantics.parser.GlueParser;
+import glueSemantics.synInterface.lfg.FStructureParser;
+import main.Settings;
+import prover.Prover;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Compares the strategies of the chart prover and the proof-net prover on the example files in the
+ * test directory. For each file and prover the median run time and the median number of bytes allocated by a deduction are reported,
+ * together with the number of solutions and of combination attempts of the prover (links for the
+ * proof-net prover).
+ * Usage: ProverBenchmark [test directory] [runs]
+ */
+public class ProverBenchmark {
+    private static final String TEST_DIR = "C:\\Users\\User\\IdeaProjects\\glueSemWorkbench\\src\\test\\";
+    private static final String[] FILES = {"intrans_quant.txt", "trans_quant.txt", "intrans_quant_adj.txt",
+            "trans_quant_prolog.txt", "every_black_dog_barks_webXLE.pl", "john_cries_webXLE.pl"};
+
+    public static void main(String[] args) throws Exception {
+        String dir = args.length > 0 ? args[0] : TEST_DIR;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        System.out.println(String.format("%-32s %-10s %10s %10s %10s %10s", "file", "prover", "median ms", "alloc KB",
+                "solutions", "attempts"));
+        // the strategies of the chart prover, then the proof-net prover
+        List<Settings> provers = new ArrayList<>();
+        for (Settings.ProverStrategy strategy : Settings.ProverStrategy.values()) {
+            Settings settings = new Settings();
+            settings.setStrategy(strategy);
+            provers.add(settings);
+        }
+        Settings proofNet = new Settings();
+        proofNet.setEngine(Settings.ProverEngine.PROOF_NET);
+        provers.add(proofNet);
+
+        for (String file : FILES) {
+            for (Settings settings : provers) {
+                long[] times = new long[runs];
+                long[] allocated = new long[runs];
+                Prover prover = null;
+                int solutions = 0;
+                // the first runs only warm up the JVM
+                for (int i = -runs; i < runs; i++) {
+                    Sequent seq = loadSequent(Paths.get(dir, file));
+                    prover = Prover.create(settings);
+                    long startBytes = allocatedBytes();
+                    long start = System.nanoTime();
+                    solutions = deduceSilently(prover, seq).size();
+                    if (i >= 0) {
+                        times[i] = System.nanoTime() - start;
+                        allocated[i] = allocatedBytes() - startBytes;
+                    }
+                }
+                Arrays.sort(times);
+                Arrays.sort(allocated);
+                String name = settings.getEngine() == Settings.ProverEngine.PROOF_NET ? "PROOF_NET"
+                        : settings.getStrategy().toString();
+                System.out.println(String.format("%-32s %-10s %10.3f %10.1f %10d %10d", file, name,
+                        times[runs / 2] / 1e6, allocated[runs / 2] / 1024.0, solutions, prover.getCombinationAttempts()));
+            }
+        }
+    }
+
+    // Bytes allocated by the current thread so far, or 0 if the JVM does not support the measurement
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return 0;
+    }
+
+    static Sequent loadSequent(Path path) throws Exception {
+        if (path.toString().endsWith(".pl")) {
+            FStructureParser parser = new FStructureParser(path);
+            return new Sequent(parser.getLexicalEntries(), parser.getVariableHandler());
+        }
+        GlueParser parser = new GlueParser();
+        List<LexicalEntry> entries = new LinkedList<>();
+        for (String line : Files.readAllLines(path))
+            entries.add(parser.parseMeaningConstructor(line));
+        return new Sequent(entries);
+    }
+
+    // The prover reports every step on System.out, which would dominate the measurements
+    static List<Premise> deduceSilently(Prover prover, Sequent seq) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {}
+        }));
+        try {
+            return prover.deduce(seq);
+        }
+        finally {
+            System.setOut(out);
+        }
+    }
+}